@@ -0,0 +1,71 @@
+package com.attendly.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Writing attendance lists as the controllers do: a slot register (60 rows) and a semester of a
+ * student's history (600 rows).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class AttendanceResponseSerializationBenchmark {
+
+  @Param({"60", "600"})
+  private int rows;
+
+  private ObjectMapper objectMapper;
+  private List<AttendanceResponse> responses;
+
+  @Setup
+  public void setUp() {
+    // Same defaults as the MVC message converter (java.time support, ISO dates)
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    LocalDate start = LocalDate.of(2025, 1, 6);
+    responses = new ArrayList<>(rows);
+    for (long i = 1; i <= rows; i++) {
+      LocalDateTime markedAt = start.plusDays(i / 6).atTime(9, 0);
+      responses.add(
+          new AttendanceResponse(
+              i,
+              i % 6 + 1,
+              "Subject " + i % 6,
+              42L,
+              "Student 42",
+              start.plusDays(i / 6),
+              i % 5 == 0 ? "ABSENT" : "PRESENT",
+              7L,
+              "Teacher 7",
+              null,
+              markedAt,
+              markedAt));
+    }
+  }
+
+  @Benchmark
+  public byte[] writeList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(responses);
+  }
+}
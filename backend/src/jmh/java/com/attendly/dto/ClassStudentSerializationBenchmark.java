@@ -0,0 +1,74 @@
+package com.attendly.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Writing a teacher's roll-call roster: one HashMap per student, as the controller used to build,
+ * against the {@link ClassStudentResponse} records the roll-call query returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ClassStudentSerializationBenchmark {
+
+  @Param({"60", "240"})
+  private int classSize;
+
+  private ObjectMapper objectMapper;
+  private List<ClassStudentResponse> rows;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    rows = new ArrayList<>(classSize);
+    for (long i = 1; i <= classSize; i++) {
+      String status =
+          i % 3 == 0 ? ClassStudentResponse.NOT_MARKED : i % 5 == 0 ? "ABSENT" : "PRESENT";
+      rows.add(
+          new ClassStudentResponse(
+              i, "Student " + i, String.format("R%04d", i), "s" + i + "@x.io", status));
+    }
+  }
+
+  @Benchmark
+  public byte[] hashMapRows() throws JsonProcessingException {
+    List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+    for (ClassStudentResponse row : rows) {
+      Map<String, Object> map = new HashMap<>();
+      map.put("id", row.id());
+      map.put("name", row.name());
+      map.put("rollNumber", row.rollNumber());
+      map.put("email", row.email());
+      map.put("attendanceStatus", row.attendanceStatus().toString());
+      maps.add(map);
+    }
+    return objectMapper.writeValueAsBytes(maps);
+  }
+
+  @Benchmark
+  public byte[] recordRows() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(rows);
+  }
+}
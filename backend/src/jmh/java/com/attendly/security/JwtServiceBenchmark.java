@@ -0,0 +1,91 @@
+package com.attendly.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Per-request cost of reading the claims the authentication filter needs from a token. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// JJWT's parsing path needs about ten seconds of each fork on one core to finish compiling
+@Warmup(iterations = 15, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class JwtServiceBenchmark {
+
+  private static final String SECRET =
+      "dGhpcy1pcy1hLWJlbmNobWFyay1zZWNyZXQtdGhhdC1pcy1sb25nLWVub3VnaC1mb3ItaHMyNTY=";
+
+  private JwtService jwtService;
+  private UserDetails user;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+    jwtService.init();
+
+    user = new User("student@example.com", "", Collections.emptyList());
+    token =
+        jwtService.generateToken(
+            Map.of(
+                "userId", 42L,
+                "name", "Student",
+                "role", "STUDENT",
+                "classId", 7L,
+                "departmentId", 3L),
+            user);
+  }
+
+  /**
+   * The filter before single-parse: every claim re-decoded the secret, rebuilt the parser and
+   * re-verified the signature, six times per request.
+   */
+  @Benchmark
+  public void perClaimParsing(Blackhole bh) {
+    bh.consume(legacyParse(token).getSubject());
+    bh.consume(legacyParse(token).getSubject().equals(user.getUsername()));
+    bh.consume(legacyParse(token).getExpiration());
+    bh.consume(legacyParse(token).get("userId", Long.class));
+    bh.consume(legacyParse(token).get("adminId", Long.class));
+    bh.consume(legacyParse(token).get("name", String.class));
+  }
+
+  @Benchmark
+  public void parseOnce(Blackhole bh) {
+    VerifiedToken verified = jwtService.parse(token);
+    bh.consume(jwtService.isTokenValid(verified, user));
+    bh.consume(verified.userId());
+    bh.consume(verified.adminId());
+    bh.consume(verified.name());
+  }
+
+  private static Claims legacyParse(String token) {
+    return Jwts.parser()
+        .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+        .build()
+        .parseSignedClaims(token)
+        .getPayload();
+  }
+}
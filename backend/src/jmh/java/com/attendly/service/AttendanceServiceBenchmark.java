@@ -0,0 +1,139 @@
+package com.attendly.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.attendly.dto.AttendanceReportResponse;
+import com.attendly.dto.AttendanceRequest;
+import com.attendly.dto.AttendanceResponse;
+import com.attendly.entity.AttendanceSummary;
+import com.attendly.entity.Student;
+import com.attendly.entity.TimetableSlot;
+import com.attendly.repository.AttendanceRepository;
+import com.attendly.repository.AttendanceSummaryRepository;
+import com.attendly.repository.ResourceVersionRepository;
+import com.attendly.repository.StudentRepository;
+import com.attendly.repository.TimetableSlotRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-memory work of AttendanceService with the repositories stubbed out: validating and keying a
+ * bulk register plus matching the projected rows back to requests, and aggregating the report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// The bulk path is still being compiled for the first 10-15 seconds of each fork on one core
+@Warmup(iterations = 20, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class AttendanceServiceBenchmark {
+
+  private static final long SLOT_ID = 1L;
+  private static final long CLASS_ID = 10L;
+  private static final long TEACHER_ID = 100L;
+
+  @Param({"60", "240"})
+  private int classSize;
+
+  private AttendanceService attendanceService;
+  private List<AttendanceRequest> register;
+
+  @Setup
+  public void setUp() {
+    // stubOnly: the mocks must not record millions of invocations during measurement
+    AttendanceRepository attendanceRepository =
+        mock(AttendanceRepository.class, withSettings().stubOnly());
+    AttendanceSummaryRepository attendanceSummaryRepository =
+        mock(AttendanceSummaryRepository.class, withSettings().stubOnly());
+    TimetableSlotRepository timetableSlotRepository =
+        mock(TimetableSlotRepository.class, withSettings().stubOnly());
+    StudentRepository studentRepository = mock(StudentRepository.class, withSettings().stubOnly());
+
+    LocalDate date = LocalDate.of(2025, 1, 6);
+    LocalDateTime now = LocalDateTime.of(2025, 1, 6, 9, 0);
+    List<Student> students = new ArrayList<>(classSize);
+    List<AttendanceResponse> saved = new ArrayList<>(classSize);
+    register = new ArrayList<>(classSize);
+    for (long studentId = 1; studentId <= classSize; studentId++) {
+      String status = studentId % 7 == 0 ? "ABSENT" : "PRESENT";
+      students.add(Student.builder().id(studentId).classId(CLASS_ID).build());
+
+      AttendanceRequest request = new AttendanceRequest();
+      request.setTimetableSlotId(SLOT_ID);
+      request.setStudentId(studentId);
+      request.setDate(date);
+      request.setStatus(status);
+      register.add(request);
+
+      saved.add(
+          new AttendanceResponse(
+              studentId,
+              SLOT_ID,
+              "Mathematics",
+              studentId,
+              "Student " + studentId,
+              date,
+              status,
+              TEACHER_ID,
+              "Teacher",
+              null,
+              now,
+              now));
+    }
+
+    List<AttendanceSummary> summaries = new ArrayList<>();
+    for (int subject = 0; subject < 8; subject++) {
+      summaries.add(
+          AttendanceSummary.builder()
+              .studentId(1L)
+              .subject("Subject " + subject)
+              .totalClasses(60)
+              .classesPresent(45 + subject)
+              .build());
+    }
+
+    when(timetableSlotRepository.findAllByIdForShare(any()))
+        .thenReturn(List.of(TimetableSlot.builder().id(SLOT_ID).classId(CLASS_ID).build()));
+    when(studentRepository.findAllById(any())).thenReturn(students);
+    when(attendanceRepository.findResponsesForBulkMark(any(), any(), any())).thenReturn(saved);
+    when(attendanceSummaryRepository.findByStudentIdOrderBySubject(anyLong()))
+        .thenReturn(summaries);
+
+    attendanceService =
+        new AttendanceService(
+            attendanceRepository,
+            attendanceSummaryRepository,
+            timetableSlotRepository,
+            studentRepository,
+            new ResourceVersions(mock(ResourceVersionRepository.class, withSettings().stubOnly())));
+  }
+
+  @Benchmark
+  public List<AttendanceResponse> markBulkAttendance() {
+    return attendanceService.markBulkAttendance(register, TEACHER_ID);
+  }
+
+  @Benchmark
+  public AttendanceReportResponse studentAttendanceReport() {
+    return attendanceService.getStudentAttendanceReport(1L);
+  }
+}
@@ -0,0 +1,57 @@
+package com.attendly.service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Conflict check run by createSlot/updateSlot against a class's existing slots for the day. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class TimetableServiceBenchmark {
+
+  @Param({"8", "40"})
+  private int existingSlots;
+
+  private List<LocalTime[]> slots;
+  private LocalTime start;
+  private LocalTime end;
+
+  @Setup
+  public void setUp() {
+    // Back-to-back 15 minute slots from 08:00; the candidate fits in the gap after the last one
+    slots = new ArrayList<>(existingSlots);
+    LocalTime cursor = LocalTime.of(8, 0);
+    for (int i = 0; i < existingSlots; i++) {
+      slots.add(new LocalTime[] {cursor, cursor.plusMinutes(15)});
+      cursor = cursor.plusMinutes(15);
+    }
+    start = cursor;
+    end = cursor.plusMinutes(15);
+  }
+
+  @Benchmark
+  public boolean findConflict() {
+    for (LocalTime[] slot : slots) {
+      if (TimetableService.hasTimeOverlap(start, end, slot[0], slot[1])) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,294 @@
+package com.attendly.loadtest;
+
+import com.attendly.repository.AttendanceRepository;
+import com.attendly.service.AttendanceSummaryService;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Synthetic college written straight into the database: departments with teachers and classes,
+ * a full Monday-to-Friday timetable per class and a semester of attendance for every student.
+ *
+ * <p>Every account shares {@link #PASSWORD}. It is hashed once; hashing per row would take
+ * minutes for a few thousand students.
+ */
+public class CollegeDataset {
+
+  public static final String PASSWORD = "LoadTest@123";
+
+  private static final List<String> SUBJECTS =
+      List.of(
+          "Mathematics",
+          "Physics",
+          "Chemistry",
+          "English",
+          "Computer Science",
+          "Electronics",
+          "Mechanics",
+          "Statistics");
+
+  private static final List<DayOfWeek> TEACHING_DAYS =
+      List.of(
+          DayOfWeek.MONDAY,
+          DayOfWeek.TUESDAY,
+          DayOfWeek.WEDNESDAY,
+          DayOfWeek.THURSDAY,
+          DayOfWeek.FRIDAY);
+
+  /** A teacher or student; {@code classId} is null for teachers. */
+  public record Person(long id, String email, String name, long departmentId, Long classId) {}
+
+  public record Slot(long id, long classId, long teacherId, DayOfWeek day) {}
+
+  public record ClassInfo(long id, List<Person> students, List<Slot> slots) {}
+
+  private final List<Person> teachers = new ArrayList<>();
+  private final List<Person> students = new ArrayList<>();
+  private final List<ClassInfo> classes = new ArrayList<>();
+  private LocalDate semesterStart;
+  private LocalDate semesterEnd;
+  private long attendanceRows;
+
+  public static CollegeDataset seed(ApplicationContext context, LoadTestOptions options) {
+    JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+    Long admins = jdbc.queryForObject("SELECT count(*) FROM admins", Long.class);
+    if (admins != null && admins > 0) {
+      throw new IllegalStateException(
+          "The load test seeds its own college and needs an empty database");
+    }
+
+    CollegeDataset dataset = new CollegeDataset();
+    String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+    dataset.insertCollege(jdbc, passwordHash, options);
+    dataset.insertAttendance(jdbc, context.getBean(AttendanceRepository.class), options);
+    context.getBean(AttendanceSummaryService.class).rebuildAll();
+    jdbc.execute("ANALYZE");
+    return dataset;
+  }
+
+  private void insertCollege(JdbcTemplate jdbc, String passwordHash, LoadTestOptions options) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    long adminId =
+        jdbc.queryForObject(
+            "INSERT INTO admins (name, email, password, phone, institution, role, is_active,"
+                + " created_at, updated_at)"
+                + " VALUES ('Load Test Admin', 'admin@loadtest.local', ?, '9000000000',"
+                + " 'Load Test College', 'ADMIN', true, ?, ?) RETURNING id",
+            Long.class,
+            passwordHash,
+            now,
+            now);
+
+    for (int d = 1; d <= options.departments(); d++) {
+      long departmentId =
+          jdbc.queryForObject(
+              "INSERT INTO departments (name, code, admin_id, is_active, created_at, updated_at)"
+                  + " VALUES (?, ?, ?, true, ?, ?) RETURNING id",
+              Long.class,
+              "Department " + d,
+              "D" + d,
+              adminId,
+              now,
+              now);
+
+      List<Person> departmentTeachers = new ArrayList<>();
+      for (int t = 1; t <= options.teachersPerDepartment(); t++) {
+        String email = "teacher" + d + "." + t + "@loadtest.local";
+        String name = "Teacher " + d + "." + t;
+        long teacherId =
+            jdbc.queryForObject(
+                "INSERT INTO teachers (name, email, password, first_login, department_id,"
+                    + " admin_id, is_active, created_at, updated_at)"
+                    + " VALUES (?, ?, ?, false, ?, ?, true, ?, ?) RETURNING id",
+                Long.class,
+                name,
+                email,
+                passwordHash,
+                departmentId,
+                adminId,
+                now,
+                now);
+        departmentTeachers.add(new Person(teacherId, email, name, departmentId, null));
+      }
+      teachers.addAll(departmentTeachers);
+
+      for (int c = 1; c <= options.classesPerDepartment(); c++) {
+        long classId =
+            jdbc.queryForObject(
+                "INSERT INTO classes (name, semester, year, department_id, admin_id, is_active,"
+                    + " created_at, updated_at)"
+                    + " VALUES (?, 1, ?, ?, ?, true, ?, ?) RETURNING id",
+                Long.class,
+                "Class " + d + "." + c,
+                LocalDate.now().getYear(),
+                departmentId,
+                adminId,
+                now,
+                now);
+        classes.add(
+            new ClassInfo(
+                classId,
+                insertStudents(jdbc, passwordHash, options, adminId, departmentId, classId, now),
+                insertTimetable(jdbc, options, classId, c, departmentTeachers, now)));
+      }
+    }
+  }
+
+  private List<Person> insertStudents(
+      JdbcTemplate jdbc,
+      String passwordHash,
+      LoadTestOptions options,
+      long adminId,
+      long departmentId,
+      long classId,
+      Timestamp now) {
+    String rollPrefix = "C" + classId + "-";
+    List<Object[]> rows = new ArrayList<>(options.studentsPerClass());
+    for (int s = 1; s <= options.studentsPerClass(); s++) {
+      rows.add(
+          new Object[] {
+            "Student " + classId + "." + s,
+            "student" + classId + "." + s + "@loadtest.local",
+            passwordHash,
+            rollPrefix + String.format("%04d", s),
+            classId,
+            departmentId,
+            adminId,
+            now,
+            now
+          });
+    }
+    jdbc.batchUpdate(
+        "INSERT INTO students (name, email, password, roll_number, phone_verified, first_login,"
+            + " class_id, department_id, admin_id, is_active, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, false, false, ?, ?, ?, true, ?, ?)",
+        rows);
+
+    List<Person> classStudents =
+        jdbc.query(
+            "SELECT id, email, name FROM students WHERE class_id = ? ORDER BY roll_number",
+            (rs, i) ->
+                new Person(
+                    rs.getLong("id"),
+                    rs.getString("email"),
+                    rs.getString("name"),
+                    departmentId,
+                    classId),
+            classId);
+    students.addAll(classStudents);
+    return classStudents;
+  }
+
+  private List<Slot> insertTimetable(
+      JdbcTemplate jdbc,
+      LoadTestOptions options,
+      long classId,
+      int classNumber,
+      List<Person> departmentTeachers,
+      Timestamp now) {
+    List<Slot> slots = new ArrayList<>();
+    for (DayOfWeek day : TEACHING_DAYS) {
+      for (int period = 0; period < options.slotsPerDay(); period++) {
+        // Rotate subjects and teachers so every teacher takes several classes during the week
+        int subject = (period + day.ordinal()) % SUBJECTS.size();
+        Person teacher =
+            departmentTeachers.get((classNumber + period) % departmentTeachers.size());
+        LocalTime start = LocalTime.of(9, 0).plusHours(period);
+        long slotId =
+            jdbc.queryForObject(
+                "INSERT INTO timetable_slots (class_id, subject, teacher_id, teacher_name,"
+                    + " day_of_week, start_time, end_time, room, is_active, created_at,"
+                    + " updated_at)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, true, ?, ?) RETURNING id",
+                Long.class,
+                classId,
+                SUBJECTS.get(subject),
+                teacher.id(),
+                teacher.name(),
+                day.name(),
+                Time.valueOf(start),
+                Time.valueOf(start.plusMinutes(50)),
+                "Room " + classId,
+                now,
+                now);
+        slots.add(new Slot(slotId, classId, teacher.id(), day));
+      }
+    }
+    return slots;
+  }
+
+  private void insertAttendance(
+      JdbcTemplate jdbc, AttendanceRepository attendanceRepository, LoadTestOptions options) {
+    semesterEnd = LocalDate.now().minusDays(1);
+    semesterStart =
+        semesterEnd.minusWeeks(options.weeks()).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    attendanceRepository.createPartitions(
+        semesterStart,
+        (int) ChronoUnit.MONTHS.between(semesterStart.withDayOfMonth(1), LocalDate.now()) + 3);
+
+    // One set-based insert: every student of the slot's class on every matching weekday, with
+    // roughly 85% present. The status is derived from the ids so reruns produce the same data.
+    attendanceRows =
+        jdbc.update(
+            "INSERT INTO attendance (timetable_slot_id, student_id, date, status, marked_by,"
+                + " created_at, updated_at)"
+                + " SELECT ts.id, s.id, d.day::date,"
+                + " CASE WHEN (s.id * 31 + ts.id * 17 + (d.day::date - DATE '2000-01-01')) % 100"
+                + " < 85 THEN 'PRESENT' ELSE 'ABSENT' END,"
+                + " ts.teacher_id, now(), now()"
+                + " FROM timetable_slots ts"
+                + " JOIN students s ON s.class_id = ts.class_id"
+                + " JOIN generate_series(?::date, ?::date, INTERVAL '1 day') AS d(day)"
+                + " ON to_char(d.day, 'FMDAY') = ts.day_of_week",
+            Date.valueOf(semesterStart),
+            Date.valueOf(semesterEnd));
+  }
+
+  /** Date on which the slot was taught {@code weeksBack} weeks before the end of the semester. */
+  public LocalDate teachingDate(Slot slot, int weeksBack) {
+    LocalDate last = semesterEnd.with(TemporalAdjusters.previousOrSame(slot.day()));
+    LocalDate date = last.minusWeeks(weeksBack);
+    return date.isBefore(semesterStart) ? last : date;
+  }
+
+  public List<Person> teachers() {
+    return teachers;
+  }
+
+  public List<Person> students() {
+    return students;
+  }
+
+  public List<ClassInfo> classes() {
+    return classes;
+  }
+
+  public int weeks() {
+    return (int) ChronoUnit.WEEKS.between(semesterStart, semesterEnd);
+  }
+
+  public String describe() {
+    int slots = classes.stream().mapToInt(c -> c.slots().size()).sum();
+    return String.format(
+        "%d teachers, %d classes, %d students, %d timetable slots, %d attendance rows (%s to %s)",
+        teachers.size(),
+        classes.size(),
+        students.size(),
+        slots,
+        attendanceRows,
+        semesterStart,
+        semesterEnd);
+  }
+}
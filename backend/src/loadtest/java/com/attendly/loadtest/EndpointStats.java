@@ -0,0 +1,64 @@
+package com.attendly.loadtest;
+
+import java.util.Arrays;
+
+/** Latencies and failures recorded for one endpoint during one phase. */
+public class EndpointStats {
+
+  private final String name;
+  private long[] latencies = new long[1024];
+  private int count;
+  private int errors;
+  private long queries;
+  private int countedResponses;
+
+  public EndpointStats(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Records one response. {@code queries} is the X-Query-Count header value, or -1 when the
+   * response did not carry one.
+   */
+  public synchronized void record(long nanos, boolean success, int queries) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count * 2);
+    }
+    latencies[count++] = nanos;
+    if (!success) {
+      errors++;
+    }
+    if (queries >= 0) {
+      this.queries += queries;
+      countedResponses++;
+    }
+  }
+
+  public static String header() {
+    return String.format(
+        "%-28s %8s %7s %9s %9s %9s %12s",
+        "endpoint", "requests", "errors", "p50 ms", "p99 ms", "max ms", "queries/req");
+  }
+
+  public synchronized String summary() {
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    return String.format(
+        "%-28s %8d %7d %9.2f %9.2f %9.2f %12s",
+        name,
+        count,
+        errors,
+        percentile(sorted, 0.50),
+        percentile(sorted, 0.99),
+        count > 0 ? sorted[count - 1] / 1e6 : 0.0,
+        countedResponses > 0 ? String.format("%.1f", (double) queries / countedResponses) : "-");
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0.0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(index, 0)] / 1e6;
+  }
+}
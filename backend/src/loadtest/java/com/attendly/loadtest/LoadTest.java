@@ -0,0 +1,322 @@
+package com.attendly.loadtest;
+
+import com.attendly.AttendlyApplication;
+import com.attendly.loadtest.CollegeDataset.ClassInfo;
+import com.attendly.loadtest.CollegeDataset.Person;
+import com.attendly.loadtest.CollegeDataset.Slot;
+import com.attendly.observability.QueryCountFilter;
+import com.attendly.security.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * End-to-end load test: starts the application against an embedded (or given) PostgreSQL, seeds
+ * a synthetic college and replays the morning traffic, one endpoint per phase and then mixed.
+ * Prints p50/p99 latency and the SQL statements per request reported in the X-Query-Count
+ * header. The spike phase is the 9am rush: {@code --spike-concurrency} students logging in at
+ * once while reports keep coming at the normal concurrency.
+ *
+ * <p>Run with {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--requests=5000"}.
+ * See {@link LoadTestOptions} for the available options. Pass {@code
+ * --db-url=jdbc:postgresql://...} to use an existing, empty database instead of the embedded one,
+ * and {@code --profiles=virtual-threads} to compare the application's profiles.
+ */
+public class LoadTest {
+
+  private static final Map<String, Integer> MIX_WEIGHTS =
+      Map.of("report", 50, "class-students", 25, "bulk-mark", 15, "login", 10);
+
+  private final CollegeDataset dataset;
+  private final ObjectMapper objectMapper;
+  private final String baseUrl;
+  private final HttpClient httpClient;
+  private final Map<Long, String> studentTokens = new HashMap<>();
+  private final Map<Long, String> teacherTokens = new HashMap<>();
+
+  private LoadTest(ConfigurableApplicationContext context, CollegeDataset dataset) {
+    this.dataset = dataset;
+    this.objectMapper = context.getBean(ObjectMapper.class);
+    this.baseUrl =
+        "http://localhost:"
+            + context.getEnvironment().getProperty("local.server.port")
+            + context.getEnvironment().getProperty("server.servlet.context-path", "");
+    this.httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // Same claims UserAuthService puts in login tokens, minted directly to skip BCrypt
+    JwtService jwtService = context.getBean(JwtService.class);
+    for (Person student : dataset.students()) {
+      Map<String, Object> claims = new HashMap<>();
+      claims.put("userId", student.id());
+      claims.put("name", student.name());
+      claims.put("role", "STUDENT");
+      claims.put("classId", student.classId());
+      claims.put("departmentId", student.departmentId());
+      studentTokens.put(student.id(), jwtService.generateToken(claims, user(student)));
+    }
+    for (Person teacher : dataset.teachers()) {
+      Map<String, Object> claims = new HashMap<>();
+      claims.put("userId", teacher.id());
+      claims.put("name", teacher.name());
+      claims.put("role", "TEACHER");
+      claims.put("departmentId", teacher.departmentId());
+      teacherTokens.put(teacher.id(), jwtService.generateToken(claims, user(teacher)));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+
+    EmbeddedPostgres embedded = null;
+    String dbUrl = options.dbUrl();
+    if (dbUrl == null) {
+      embedded = EmbeddedPostgres.builder().start();
+      dbUrl = embedded.getJdbcUrl("postgres", "postgres");
+    }
+
+    try (ConfigurableApplicationContext context = startApplication(options, dbUrl)) {
+      long seedStart = System.nanoTime();
+      CollegeDataset dataset = CollegeDataset.seed(context, options);
+      System.out.printf(
+          "Seeded %s in %.1f s%n", dataset.describe(), (System.nanoTime() - seedStart) / 1e9);
+      new LoadTest(context, dataset).run(options);
+    } finally {
+      if (embedded != null) {
+        embedded.close();
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext startApplication(
+      LoadTestOptions options, String dbUrl) {
+    // devtools would otherwise restart the application through LoadTest.main
+    System.setProperty("spring.devtools.restart.enabled", "false");
+    // Command line arguments so they win over application.yml
+    List<String> args = new ArrayList<>();
+    if (options.profiles() != null) {
+      args.add("--spring.profiles.active=" + options.profiles());
+    }
+    args.addAll(
+        List.of(
+            "--server.port=0",
+            "--spring.datasource.url=" + dbUrl,
+            "--spring.datasource.username=" + options.dbUsername(),
+            "--spring.datasource.password=" + options.dbPassword(),
+            "--spring.jpa.show-sql=false",
+            // As in prod, so connections are only held for the length of a transaction
+            "--spring.jpa.open-in-view=false",
+            "--spring.gmail.oauth.client-id=loadtest",
+            "--spring.gmail.oauth.client-secret=loadtest",
+            "--spring.gmail.oauth.refresh-token=loadtest",
+            "--spring.gmail.user.email=loadtest@loadtest.local",
+            "--logging.level.com.attendly=INFO",
+            "--logging.level.org.springframework.security=INFO",
+            "--logging.level.org.hibernate.SQL=INFO"));
+    return new SpringApplicationBuilder(AttendlyApplication.class).run(args.toArray(String[]::new));
+  }
+
+  private void run(LoadTestOptions options) throws InterruptedException {
+    Map<String, Supplier<HttpRequest>> endpoints = new LinkedHashMap<>();
+    endpoints.put("login", this::studentLogin);
+    endpoints.put("report", this::attendanceReport);
+    endpoints.put("class-students", this::classStudents);
+    endpoints.put("bulk-mark", this::bulkMark);
+
+    System.out.printf(
+        "Warming up with %d mixed requests at concurrency %d%n",
+        options.warmupRequests(), options.concurrency());
+    runPhase(endpoints, true, options.warmupRequests(), options.concurrency());
+
+    List<EndpointStats> results = new ArrayList<>();
+    for (String phase : options.phases()) {
+      if (phase.equals("spike")) {
+        results.addAll(runSpike(endpoints, options));
+        continue;
+      }
+      boolean mixed = phase.equals("mix");
+      if (!mixed && !endpoints.containsKey(phase)) {
+        throw new IllegalArgumentException("Unknown phase: " + phase);
+      }
+      int requests = phase.equals("login") ? options.loginRequests() : options.requests();
+      Map<String, Supplier<HttpRequest>> phaseEndpoints =
+          mixed ? endpoints : Map.of(phase, endpoints.get(phase));
+      results.addAll(runPhase(phaseEndpoints, mixed, requests, options.concurrency()).values());
+    }
+
+    System.out.println();
+    System.out.println(EndpointStats.header());
+    results.forEach(stats -> System.out.println(stats.summary()));
+  }
+
+  private List<EndpointStats> runSpike(
+      Map<String, Supplier<HttpRequest>> endpoints, LoadTestOptions options)
+      throws InterruptedException {
+    EndpointStats logins = new EndpointStats("spike/login");
+    EndpointStats reports = new EndpointStats("spike/report");
+    ExecutorService loginWorkers = Executors.newFixedThreadPool(options.spikeConcurrency());
+    ExecutorService reportWorkers = Executors.newFixedThreadPool(options.concurrency());
+    for (int i = 0; i < options.loginRequests(); i++) {
+      loginWorkers.execute(() -> send(endpoints.get("login").get(), logins));
+    }
+    for (int i = 0; i < options.requests(); i++) {
+      reportWorkers.execute(() -> send(endpoints.get("report").get(), reports));
+    }
+    loginWorkers.shutdown();
+    reportWorkers.shutdown();
+    loginWorkers.awaitTermination(1, TimeUnit.HOURS);
+    reportWorkers.awaitTermination(1, TimeUnit.HOURS);
+    return List.of(logins, reports);
+  }
+
+  private Map<String, EndpointStats> runPhase(
+      Map<String, Supplier<HttpRequest>> endpoints, boolean mixed, int requests, int concurrency)
+      throws InterruptedException {
+    Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    endpoints
+        .keySet()
+        .forEach(name -> stats.put(name, new EndpointStats(mixed ? "mix/" + name : name)));
+    List<String> names = new ArrayList<>(endpoints.keySet());
+
+    ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    for (int i = 0; i < requests; i++) {
+      String name = mixed ? pickWeighted(names) : names.get(0);
+      workers.execute(() -> send(endpoints.get(name).get(), stats.get(name)));
+    }
+    workers.shutdown();
+    workers.awaitTermination(1, TimeUnit.HOURS);
+    return stats;
+  }
+
+  private void send(HttpRequest request, EndpointStats stats) {
+    long start = System.nanoTime();
+    boolean success;
+    int queries = -1;
+    try {
+      HttpResponse<Void> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+      success = response.statusCode() < 400;
+      queries =
+          response
+              .headers()
+              .firstValue(QueryCountFilter.HEADER)
+              .map(Integer::parseInt)
+              .orElse(-1);
+    } catch (IOException e) {
+      success = false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    stats.record(System.nanoTime() - start, success, queries);
+  }
+
+  private static String pickWeighted(List<String> names) {
+    int total = names.stream().mapToInt(MIX_WEIGHTS::get).sum();
+    int pick = ThreadLocalRandom.current().nextInt(total);
+    for (String name : names) {
+      pick -= MIX_WEIGHTS.get(name);
+      if (pick < 0) {
+        return name;
+      }
+    }
+    return names.get(names.size() - 1);
+  }
+
+  private HttpRequest studentLogin() {
+    Person student = random(dataset.students());
+    return post(
+        "/auth/user/student/login",
+        Map.of("email", student.email(), "password", CollegeDataset.PASSWORD),
+        null);
+  }
+
+  private HttpRequest attendanceReport() {
+    Person student = random(dataset.students());
+    return get("/student/attendance/report", studentTokens.get(student.id()));
+  }
+
+  private HttpRequest classStudents() {
+    ClassInfo classInfo = random(dataset.classes());
+    Slot slot = random(classInfo.slots());
+    LocalDate date = dataset.teachingDate(slot, 0);
+    return get(
+        "/teacher/class/" + classInfo.id() + "/students?slotId=" + slot.id() + "&date=" + date,
+        teacherTokens.get(slot.teacherId()));
+  }
+
+  // A teacher re-submitting a whole register for one of the slot's past dates
+  private HttpRequest bulkMark() {
+    ClassInfo classInfo = random(dataset.classes());
+    Slot slot = random(classInfo.slots());
+    LocalDate date =
+        dataset.teachingDate(slot, ThreadLocalRandom.current().nextInt(dataset.weeks()));
+    List<Map<String, Object>> register = new ArrayList<>(classInfo.students().size());
+    for (Person student : classInfo.students()) {
+      register.add(
+          Map.of(
+              "timetableSlotId", slot.id(),
+              "studentId", student.id(),
+              "date", date.toString(),
+              "status", ThreadLocalRandom.current().nextInt(100) < 85 ? "PRESENT" : "ABSENT"));
+    }
+    return post("/admin/attendance/mark/bulk", register, teacherTokens.get(slot.teacherId()));
+  }
+
+  private HttpRequest get(String path, String token) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Authorization", "Bearer " + token)
+        .GET()
+        .build();
+  }
+
+  private HttpRequest post(String path, Object body, String token) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(body)));
+    if (token != null) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    return builder.build();
+  }
+
+  private byte[] toJson(Object body) {
+    try {
+      return objectMapper.writeValueAsBytes(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T random(List<T> items) {
+    return items.get(ThreadLocalRandom.current().nextInt(items.size()));
+  }
+
+  private static User user(Person person) {
+    return new User(person.email(), "", List.of());
+  }
+}
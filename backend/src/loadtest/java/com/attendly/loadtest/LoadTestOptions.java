@@ -0,0 +1,72 @@
+package com.attendly.loadtest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, given as {@code --name=value}. Every option has a
+ * default, so a bare run seeds a mid-sized college and replays every phase.
+ */
+public record LoadTestOptions(
+    String dbUrl,
+    String dbUsername,
+    String dbPassword,
+    int departments,
+    int classesPerDepartment,
+    int studentsPerClass,
+    int teachersPerDepartment,
+    int slotsPerDay,
+    int weeks,
+    int concurrency,
+    int warmupRequests,
+    int requests,
+    int loginRequests,
+    int spikeConcurrency,
+    String profiles,
+    List<String> phases) {
+
+  public static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      int split = arg.indexOf('=');
+      values.put(arg.substring(2, split), arg.substring(split + 1));
+    }
+
+    LoadTestOptions options =
+        new LoadTestOptions(
+            values.remove("db-url"),
+            values.getOrDefault("db-username", "postgres"),
+            values.getOrDefault("db-password", "postgres"),
+            intValue(values, "departments", 4),
+            intValue(values, "classes-per-department", 5),
+            intValue(values, "students-per-class", 60),
+            intValue(values, "teachers-per-department", 6),
+            intValue(values, "slots-per-day", 6),
+            intValue(values, "weeks", 16),
+            intValue(values, "concurrency", 16),
+            intValue(values, "warmup-requests", 200),
+            intValue(values, "requests", 2000),
+            intValue(values, "login-requests", 300),
+            intValue(values, "spike-concurrency", 200),
+            values.remove("profiles"),
+            Arrays.asList(
+                values
+                    .getOrDefault("phases", "login,report,class-students,bulk-mark,mix,spike")
+                    .split(",")));
+    values.keySet().removeAll(List.of("db-username", "db-password", "phases"));
+    if (!values.isEmpty()) {
+      throw new IllegalArgumentException("Unknown options: " + values.keySet());
+    }
+    return options;
+  }
+
+  private static int intValue(Map<String, String> values, String name, int defaultValue) {
+    String value = values.remove(name);
+    return value != null ? Integer.parseInt(value) : defaultValue;
+  }
+}
@@ -1,10 +1,15 @@
 package com.attendly.config;
 
+import com.attendly.security.BoundedPasswordEncoder;
 import com.attendly.security.JwtAuthenticationEntryPoint;
 import com.attendly.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -15,10 +20,10 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -31,14 +36,18 @@ public class SecurityConfig {
   private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
   @Bean
-  public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain securityFilterChain(
+      HttpSecurity http, AuthenticationProvider authenticationProvider, Environment environment)
+      throws Exception {
     http.csrf(AbstractHttpConfigurer::disable)
         .cors(cors -> cors.configure(http))
         .authorizeHttpRequests(
             auth ->
                 auth.requestMatchers("/auth/**")
                     .permitAll()
-                    .requestMatchers("/health")
+                    .requestMatchers("/health", "/error")
+                    .permitAll()
+                    .requestMatchers(managementPort(environment))
                     .permitAll()
                     .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**")
                     .permitAll()
@@ -46,7 +55,7 @@ public class SecurityConfig {
                     .authenticated())
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-        .authenticationProvider(authenticationProvider())
+        .authenticationProvider(authenticationProvider)
         .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
         .exceptionHandling(
             exception -> exception.authenticationEntryPoint(jwtAuthenticationEntryPoint));
@@ -54,11 +63,19 @@ public class SecurityConfig {
     return http.build();
   }
 
+  // Anything on the internal management port is actuator, for Prometheus to scrape without a token.
+  // The property is only set when actuator has a port of its own
+  private static RequestMatcher managementPort(Environment environment) {
+    return request ->
+        String.valueOf(request.getLocalPort())
+            .equals(environment.getProperty("local.management.port"));
+  }
+
   @Bean
-  public AuthenticationProvider authenticationProvider() {
+  public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
     authProvider.setUserDetailsService(userDetailsService);
-    authProvider.setPasswordEncoder(passwordEncoder());
+    authProvider.setPasswordEncoder(passwordEncoder);
     return authProvider;
   }
 
@@ -68,8 +85,17 @@ public class SecurityConfig {
     return config.getAuthenticationManager();
   }
 
+  // Raising the strength re-hashes each password with the new cost at its owner's next login
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public BoundedPasswordEncoder passwordEncoder(
+      @Value("${security.password-hashing.strength:10}") int strength,
+      @Value("${security.password-hashing.threads:0}") int threads,
+      @Value("${security.password-hashing.queue-capacity:100}") int queueCapacity,
+      @Value("${security.password-hashing.max-wait:5s}") Duration maxWait,
+      MeterRegistry meterRegistry) {
+    // By default half the cores, leaving the rest to everything that is not a login
+    int poolSize =
+        threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, maxWait, meterRegistry);
   }
 }
@@ -4,13 +4,16 @@ import com.attendly.dto.AttendanceRequest;
 import com.attendly.dto.AttendanceResponse;
 import com.attendly.security.UserPrincipal;
 import com.attendly.service.AttendanceService;
+import com.attendly.service.AttendanceSummaryService;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 public class AttendanceController {
 
   private final AttendanceService attendanceService;
+  private final AttendanceSummaryService attendanceSummaryService;
 
   @PostMapping("/mark")
   public ResponseEntity<AttendanceResponse> markAttendance(
@@ -57,4 +61,14 @@ public class AttendanceController {
     List<AttendanceResponse> attendance = attendanceService.getAttendanceBySlot(slotId, date);
     return ResponseEntity.ok(attendance);
   }
+
+  // Recomputes the report counters of this admin's students from the raw attendance rows. It
+  // locks those students' counters, holding off their marks, so only admins may run it
+  @PostMapping("/summary/rebuild")
+  @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+  public ResponseEntity<Map<String, Integer>> rebuildSummary(
+      @AuthenticationPrincipal UserPrincipal userPrincipal) {
+    int rows = attendanceSummaryService.rebuildForAdmin(userPrincipal.getId());
+    return ResponseEntity.ok(Map.of("summaryRows", rows));
+  }
 }
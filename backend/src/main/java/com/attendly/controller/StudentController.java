@@ -3,14 +3,21 @@ package com.attendly.controller;
 import com.attendly.dto.StudentRequest;
 import com.attendly.entity.Student;
 import com.attendly.security.UserPrincipal;
+import com.attendly.service.StudentImportService;
+import com.attendly.service.StudentImportService.ImportRow;
 import com.attendly.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/admin/students")
@@ -18,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 public class StudentController {
 
   private final StudentService studentService;
+  private final StudentImportService studentImportService;
+  private final ObjectMapper objectMapper;
 
   @PostMapping
   public ResponseEntity<Student> createStudent(
@@ -27,6 +36,33 @@ public class StudentController {
     return ResponseEntity.status(HttpStatus.CREATED).body(student);
   }
 
+  /**
+   * Bulk import from a JSON array of student requests. Responds with NDJSON: one line per
+   * rejected row, progress after each saved chunk and a closing summary.
+   */
+  @PostMapping(
+      value = "/import",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> importStudents(
+      @RequestBody List<StudentRequest> requests,
+      @AuthenticationPrincipal UserPrincipal userPrincipal) {
+    return streamImport(studentImportService.fromJson(requests), userPrincipal.getId());
+  }
+
+  /** Bulk import from CSV with a header row; see {@link StudentImportService#CSV_COLUMNS}. */
+  @PostMapping(
+      value = "/import",
+      consumes = "text/csv",
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> importStudentsCsv(
+      @RequestBody(required = false) String csv,
+      @AuthenticationPrincipal UserPrincipal userPrincipal) {
+    // An empty body gets parseCsv's 400 rather than Spring's missing-body error
+    return streamImport(
+        studentImportService.parseCsv(csv != null ? csv : ""), userPrincipal.getId());
+  }
+
   @GetMapping
   public ResponseEntity<List<Student>> getAllStudents(
       @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -70,4 +106,23 @@ public class StudentController {
     List<Student> students = studentService.searchStudents(q, classId);
     return ResponseEntity.ok(students);
   }
+
+  private ResponseEntity<StreamingResponseBody> streamImport(List<ImportRow> rows, Long adminId) {
+    StreamingResponseBody body =
+        out ->
+            studentImportService.importRows(
+                rows,
+                adminId,
+                event -> {
+                  try {
+                    out.write(objectMapper.writeValueAsBytes(event));
+                    out.write('\n');
+                    out.flush();
+                  } catch (IOException e) {
+                    // The client went away; stop importing after the current chunk
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
 }
@@ -8,14 +8,20 @@ import com.attendly.exception.ResourceNotFoundException;
 import com.attendly.repository.StudentRepository;
 import com.attendly.security.UserPrincipal;
 import com.attendly.service.AttendanceService;
-import com.attendly.service.TimetableService;
+import com.attendly.service.ResourceVersions;
+import com.attendly.service.TimetableSnapshotService;
+import com.attendly.service.WeeklyTimetable;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.TextStyle;
 import java.util.List;
 import java.util.Locale;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -23,47 +29,65 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/student")
 @RequiredArgsConstructor
+@Slf4j
 public class StudentPortalController {
 
-  private final TimetableService timetableService;
+  private final TimetableSnapshotService timetableSnapshotService;
   private final AttendanceService attendanceService;
   private final StudentRepository studentRepository;
+  private final ResourceVersions resourceVersions;
 
   @GetMapping("/timetable")
   public ResponseEntity<List<TimetableSlotResponse>> getTimetable(
       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
       @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
+    String etag =
+        resourceVersions.timetableEtag(userPrincipal.getId(), userPrincipal.getClassId());
+    if (matches(ifNoneMatch, etag)) {
+      return notModified(etag);
+    }
+
     // Get student details
     Student student =
         studentRepository
             .findById(userPrincipal.getId())
             .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+    // The class in the token lags behind a class change until the student logs in again
+    etag = resourceVersions.timetableEtag(student.getId(), student.getClassId());
 
+    WeeklyTimetable<TimetableSlotResponse> timetable =
+        timetableSnapshotService.forClass(student.getClassId());
+    List<TimetableSlotResponse> slots;
     if (date != null) {
       // Get timetable for specific day
       DayOfWeek dayOfWeek = date.getDayOfWeek();
       String dayName = dayOfWeek.getDisplayName(TextStyle.FULL, Locale.ENGLISH).toUpperCase();
-      System.out.println("=== DEBUG: Fetching student timetable for date: " + date + ", dayName: " + dayName + " ===");
+      log.debug("Fetching student timetable for date: {}, dayName: {}", date, dayName);
 
-      List<TimetableSlotResponse> slots =
-          timetableService.getStudentTimetableByDay(student.getClassId(), dayName);
-      System.out.println("=== DEBUG: Found " + slots.size() + " slots for " + dayName + " ===");
-      return ResponseEntity.ok(slots);
+      slots = timetable.forDay(dayName);
+      log.debug("Found {} slots for {}", slots.size(), dayName);
     } else {
       // Get full week timetable
-      List<TimetableSlotResponse> slots =
-          timetableService.getStudentTimetable(student.getClassId());
-      return ResponseEntity.ok(slots);
+      slots = timetable.slots();
     }
+    return ok(etag, slots);
   }
 
   @GetMapping("/attendance/today")
   public ResponseEntity<List<AttendanceResponse>> getTodayAttendance(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
       @AuthenticationPrincipal UserPrincipal userPrincipal) {
+    String etag =
+        resourceVersions.attendanceEtag(
+            "today-" + LocalDate.now(), userPrincipal.getId(), userPrincipal.getClassId());
+    if (matches(ifNoneMatch, etag)) {
+      return notModified(etag);
+    }
     List<AttendanceResponse> attendance =
         attendanceService.getTodayAttendanceForStudent(userPrincipal.getId());
-    return ResponseEntity.ok(attendance);
+    return ok(etag, attendance);
   }
 
   @GetMapping("/attendance")
@@ -80,9 +104,48 @@ public class StudentPortalController {
 
   @GetMapping("/attendance/report")
   public ResponseEntity<AttendanceReportResponse> getAttendanceReport(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
       @AuthenticationPrincipal UserPrincipal userPrincipal) {
+    String etag =
+        resourceVersions.attendanceEtag(
+            "report", userPrincipal.getId(), userPrincipal.getClassId());
+    if (matches(ifNoneMatch, etag)) {
+      return notModified(etag);
+    }
     AttendanceReportResponse report =
         attendanceService.getStudentAttendanceReport(userPrincipal.getId());
-    return ResponseEntity.ok(report);
+    return ok(etag, report);
+  }
+
+  // Clients must revalidate every time; the ETag makes that a query-free 304
+  private static <T> ResponseEntity<T> ok(String etag, T body) {
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .eTag(etag)
+        .body(body);
+  }
+
+  private static <T> ResponseEntity<T> notModified(String etag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .eTag(etag)
+        .build();
+  }
+
+  // If-None-Match may list several ETags, possibly weak, or be "*"
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals("*") || tag.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
   }
 }
@@ -1,100 +1,63 @@
 package com.attendly.controller;
 
-import com.attendly.entity.Attendance;
-import com.attendly.entity.Student;
+import com.attendly.dto.ClassStudentResponse;
+import com.attendly.dto.TeacherTimetableSlotResponse;
 import com.attendly.entity.TimetableSlot;
-import com.attendly.repository.AttendanceRepository;
 import com.attendly.repository.StudentRepository;
 import com.attendly.repository.TimetableSlotRepository;
 import com.attendly.security.UserPrincipal;
+import com.attendly.service.TimetableSnapshotService;
+import com.attendly.service.WeeklyTimetable;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/teacher")
+@Slf4j
 @CrossOrigin(origins = "*")
 public class TeacherPortalController {
 
   @Autowired private TimetableSlotRepository timetableSlotRepository;
 
-  @Autowired private StudentRepository studentRepository;
+  @Autowired private TimetableSnapshotService timetableSnapshotService;
 
-  @Autowired private AttendanceRepository attendanceRepository;
+  @Autowired private StudentRepository studentRepository;
 
   @GetMapping("/timetable")
-  public ResponseEntity<List<Map<String, Object>>> getTeacherTimetable(
+  public ResponseEntity<List<TeacherTimetableSlotResponse>> getTeacherTimetable(
       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
       @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
-    Long teacherId = userPrincipal.getId();
-
+    WeeklyTimetable<TeacherTimetableSlotResponse> timetable =
+        timetableSnapshotService.forTeacher(userPrincipal.getId());
+    List<TeacherTimetableSlotResponse> slots;
     if (date != null) {
       DayOfWeek dayOfWeekEnum = date.getDayOfWeek();
       String dayOfWeek = dayOfWeekEnum.toString(); // Convert to String: MONDAY, TUESDAY, etc.
-      System.out.println("=== DEBUG: Fetching timetable for date: " + date + ", dayOfWeek: " + dayOfWeek + " ===");
-      List<TimetableSlot> slots =
-          timetableSlotRepository.findByTeacherIdAndDayOfWeekAndIsActiveTrue(teacherId, dayOfWeek);
-      System.out.println("=== DEBUG: Found " + slots.size() + " slots for " + dayOfWeek + " ===");
-
-      List<Map<String, Object>> response =
-          slots.stream()
-              .map(
-                  slot -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", slot.getId());
-                    map.put("classId", slot.getClassId());
-                    map.put(
-                        "className",
-                        "Class " + slot.getClassId()); // You might want to fetch actual class name
-                    map.put("subject", slot.getSubject());
-                    map.put("dayOfWeek", slot.getDayOfWeek());
-                    map.put("startTime", slot.getStartTime().toString());
-                    map.put("endTime", slot.getEndTime().toString());
-                    map.put("room", slot.getRoom());
-                    map.put("notes", slot.getNotes());
-                    return map;
-                  })
-              .collect(Collectors.toList());
-
-      return ResponseEntity.ok(response);
+      log.debug("Fetching timetable for date: {}, dayOfWeek: {}", date, dayOfWeek);
+      slots = timetable.forDay(dayOfWeek);
+      log.debug("Found {} slots for {}", slots.size(), dayOfWeek);
     } else {
-      List<TimetableSlot> slots = timetableSlotRepository.findByTeacherIdAndIsActiveTrue(teacherId);
-      System.out.println("=== DEBUG: Fetching full week timetable, found " + slots.size() + " total slots ===");
-      for (TimetableSlot slot : slots) {
-        System.out.println("  - Slot ID: " + slot.getId() + ", Day: " + slot.getDayOfWeek() + ", Subject: " + slot.getSubject());
-      }
-
-      List<Map<String, Object>> response =
-          slots.stream()
-              .map(
-                  slot -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", slot.getId());
-                    map.put("classId", slot.getClassId());
-                    map.put("className", "Class " + slot.getClassId());
-                    map.put("subject", slot.getSubject());
-                    map.put("dayOfWeek", slot.getDayOfWeek()); // dayOfWeek is already a String
-                    map.put("startTime", slot.getStartTime().toString());
-                    map.put("endTime", slot.getEndTime().toString());
-                    map.put("room", slot.getRoom());
-                    map.put("notes", slot.getNotes());
-                    return map;
-                  })
-              .collect(Collectors.toList());
-
-      return ResponseEntity.ok(response);
+      slots = timetable.slots();
+      log.debug("Fetching full week timetable, found {} total slots", slots.size());
     }
+    // Matching If-None-Match requests are answered with 304 and no body
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .eTag(timetable.etag())
+        .body(slots);
   }
 
   @GetMapping("/class/{classId}/students")
-  public ResponseEntity<List<Map<String, Object>>> getClassStudents(
+  public ResponseEntity<List<ClassStudentResponse>> getClassStudents(
       @PathVariable Long classId,
       @RequestParam Long slotId,
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
@@ -105,34 +68,8 @@ public class TeacherPortalController {
       return ResponseEntity.status(403).build();
     }
 
-    List<Student> students = studentRepository.findByClassIdOrderByRollNumber(classId);
-
-    List<Attendance> attendanceList =
-        attendanceRepository.findByTimetableSlotIdAndDate(slotId, date);
-
-    Map<Long, Attendance> attendanceMap =
-        attendanceList.stream().collect(Collectors.toMap(Attendance::getStudentId, a -> a));
-
-    List<Map<String, Object>> response =
-        students.stream()
-            .map(
-                student -> {
-                  Map<String, Object> map = new HashMap<>();
-                  map.put("id", student.getId());
-                  map.put("name", student.getName());
-                  map.put("rollNumber", student.getRollNumber());
-                  map.put("email", student.getEmail());
-
-                  Attendance attendance = attendanceMap.get(student.getId());
-                  if (attendance != null) {
-                    map.put("attendanceStatus", attendance.getStatus().toString());
-                  } else {
-                    map.put("attendanceStatus", "NOT_MARKED");
-                  }
-
-                  return map;
-                })
-            .collect(Collectors.toList());
+    // Roster and existing marks in one indexed query; the slot above comes from the entity cache
+    List<ClassStudentResponse> response = studentRepository.findRollCall(classId, slotId, date);
 
     return ResponseEntity.ok(response);
   }
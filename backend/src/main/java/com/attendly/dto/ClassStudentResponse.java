@@ -0,0 +1,8 @@
+package com.attendly.dto;
+
+/** A student on a teacher's roll-call screen with their mark for the chosen slot and date. */
+public record ClassStudentResponse(
+    Long id, String name, String rollNumber, String email, String attendanceStatus) {
+
+  public static final String NOT_MARKED = "NOT_MARKED";
+}
@@ -0,0 +1,31 @@
+package com.attendly.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of the NDJSON stream returned by the student import. {@code error} lines name the
+ * rejected row (1-based, header excluded); {@code progress} lines report rows saved so far;
+ * the final {@code summary} line gives the totals.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StudentImportEvent(
+    String type,
+    Integer row,
+    String message,
+    Integer processed,
+    Integer total,
+    Integer created,
+    Integer failed) {
+
+  public static StudentImportEvent error(int row, String message) {
+    return new StudentImportEvent("error", row, message, null, null, null, null);
+  }
+
+  public static StudentImportEvent progress(int processed, int total) {
+    return new StudentImportEvent("progress", null, null, processed, total, null, null);
+  }
+
+  public static StudentImportEvent summary(int total, int created, int failed) {
+    return new StudentImportEvent("summary", null, null, null, total, created, failed);
+  }
+}
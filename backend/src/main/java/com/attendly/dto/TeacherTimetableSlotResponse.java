@@ -0,0 +1,16 @@
+package com.attendly.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalTime;
+
+/** One slot of a teacher's weekly timetable, with the class name resolved. */
+public record TeacherTimetableSlotResponse(
+    Long id,
+    Long classId,
+    String className,
+    String subject,
+    String dayOfWeek,
+    @JsonFormat(pattern = "HH:mm") LocalTime startTime,
+    @JsonFormat(pattern = "HH:mm") LocalTime endTime,
+    String room,
+    String notes) {}
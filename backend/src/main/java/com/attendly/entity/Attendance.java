@@ -12,7 +12,16 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
-@Table(name = "attendance")
+@Table(
+    name = "attendance",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_attendance_slot_student_date",
+            columnNames = {"timetable_slot_id", "student_id", "date"}),
+    indexes = {
+      @Index(name = "idx_attendance_student_date", columnList = "student_id, date"),
+      @Index(name = "idx_attendance_slot_date", columnList = "timetable_slot_id, date")
+    })
 @Data
 @Builder
 @NoArgsConstructor
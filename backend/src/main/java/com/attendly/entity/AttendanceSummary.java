@@ -0,0 +1,49 @@
+package com.attendly.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+/**
+ * Per-student, per-subject attendance counters. Maintained in the same transaction as every
+ * attendance write and rebuildable from the raw attendance table.
+ */
+@Entity
+@Table(
+    name = "attendance_summary",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_attendance_summary_student_subject",
+            columnNames = {"student_id", "subject"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSummary {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long studentId;
+
+  @Column(nullable = false, length = 100)
+  private String subject;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Integer totalClasses = 0;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Integer classesPresent = 0;
+
+  @UpdateTimestamp
+  @Column(nullable = false)
+  private LocalDateTime updatedAt;
+}
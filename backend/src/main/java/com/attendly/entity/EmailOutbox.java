@@ -0,0 +1,55 @@
+package com.attendly.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+@Entity
+@Table(name = "email_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+  public static final String PENDING = "PENDING";
+  public static final String SENDING = "SENDING";
+  public static final String SENT = "SENT";
+  public static final String FAILED = "FAILED";
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String recipient;
+
+  @Column(nullable = false)
+  private String subject;
+
+  // Cleared once the email is sent
+  @Column(columnDefinition = "TEXT")
+  private String htmlBody;
+
+  @Column(nullable = false, length = 20)
+  private String status;
+
+  @Column(nullable = false)
+  private Integer attempts;
+
+  @Column(nullable = false)
+  private LocalDateTime nextAttemptAt;
+
+  @Column(columnDefinition = "TEXT")
+  private String lastError;
+
+  @CreationTimestamp
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  private LocalDateTime sentAt;
+}
@@ -18,7 +18,14 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Entity
-@Table(name = "students")
+@Table(
+    name = "students",
+    indexes = {
+      @Index(
+          name = "idx_students_class_active_roll",
+          columnList = "class_id, is_active, roll_number"),
+      @Index(name = "idx_students_admin_active", columnList = "admin_id, is_active")
+    })
 @Data
 @Builder
 @NoArgsConstructor
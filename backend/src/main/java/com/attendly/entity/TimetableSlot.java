@@ -9,11 +9,24 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
-@Table(name = "timetable_slots")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "timetable-slots")
+@Table(
+    name = "timetable_slots",
+    indexes = {
+      @Index(
+          name = "idx_timetable_slots_class_day_active",
+          columnList = "class_id, day_of_week, is_active"),
+      @Index(
+          name = "idx_timetable_slots_teacher_day_active",
+          columnList = "teacher_id, day_of_week, is_active")
+    })
 @Data
 @Builder
 @NoArgsConstructor
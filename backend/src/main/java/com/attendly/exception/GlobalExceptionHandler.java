@@ -4,8 +4,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -39,6 +42,19 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(error, HttpStatus.CONFLICT);
   }
 
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<ErrorResponse> handleBadRequestException(
+      BadRequestException ex, HttpServletRequest request) {
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            ex.getMessage(),
+            LocalDateTime.now(),
+            request.getRequestURI());
+    // Explicit, so endpoints producing only NDJSON (the student import) can still return it
+    return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(error);
+  }
+
   @ExceptionHandler(BadCredentialsException.class)
   public ResponseEntity<ErrorResponse> handleBadCredentialsException(
       BadCredentialsException ex, HttpServletRequest request) {
@@ -51,6 +67,33 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
   }
 
+  @ExceptionHandler(AccessDeniedException.class)
+  public ResponseEntity<ErrorResponse> handleAccessDeniedException(
+      AccessDeniedException ex, HttpServletRequest request) {
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.FORBIDDEN.value(),
+            "Access denied",
+            LocalDateTime.now(),
+            request.getRequestURI());
+    return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
+  }
+
+  // Login and password changes while the hashing pool is saturated; the client should retry
+  @ExceptionHandler(PasswordHashingBusyException.class)
+  public ResponseEntity<ErrorResponse> handlePasswordHashingBusyException(
+      PasswordHashingBusyException ex, HttpServletRequest request) {
+    ErrorResponse error =
+        new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            ex.getMessage(),
+            LocalDateTime.now(),
+            request.getRequestURI());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(error);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationExceptions(
       MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -0,0 +1,7 @@
+package com.attendly.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+  public PasswordHashingBusyException() {
+    super("Too many sign-ins at the moment, please try again shortly");
+  }
+}
@@ -0,0 +1,25 @@
+package com.attendly.observability;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryCountConfig {
+
+  // static so the post-processor is registered before the DataSource bean is created
+  @Bean
+  public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource
+            && !(bean instanceof QueryCountingDataSource)) {
+          return new QueryCountingDataSource(dataSource);
+        }
+        return bean;
+      }
+    };
+  }
+}
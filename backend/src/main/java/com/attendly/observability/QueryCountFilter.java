@@ -0,0 +1,81 @@
+package com.attendly.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the SQL statements each request runs, including those of the JWT filter, and records
+ * them as the {@code http.server.requests.queries} metric. Requests above the configured
+ * threshold are logged as likely N+1 candidates. The count is also returned in the {@value
+ * #HEADER} response header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Query-Count";
+
+  private final MeterRegistry meterRegistry;
+  private final int warnThreshold;
+
+  public QueryCountFilter(
+      MeterRegistry meterRegistry,
+      @Value("${observability.query-count.warn-threshold:10}") int warnThreshold) {
+    this.meterRegistry = meterRegistry;
+    this.warnThreshold = warnThreshold;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    QueryCounter.start();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      int queries = QueryCounter.stop();
+      // Bodiless responses are still open here; the others got the header from the advice
+      if (!response.isCommitted()) {
+        response.setHeader(HEADER, String.valueOf(queries));
+      }
+      record(request, queries);
+    }
+  }
+
+  private void record(HttpServletRequest request, int queries) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+    DistributionSummary.builder("http.server.requests.queries")
+        .description("SQL statements run per HTTP request")
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .register(meterRegistry)
+        .record(queries);
+
+    if (queries > warnThreshold) {
+      log.warn(
+          "{} {} ran {} SQL statements (threshold {})",
+          request.getMethod(),
+          uri,
+          queries,
+          warnThreshold);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.attendly.observability;
+
+/**
+ * Counts the JDBC statements created on the current thread between {@link #start()} and {@link
+ * #stop()}. {@link QueryCountFilter} brackets every HTTP request with it; statements run outside
+ * such a scope (startup, scheduled jobs) are not counted.
+ */
+public final class QueryCounter {
+
+  private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+  private QueryCounter() {}
+
+  public static void start() {
+    COUNT.set(new int[1]);
+  }
+
+  /** Ends the scope and returns the number of statements counted in it. */
+  public static int stop() {
+    int count = current();
+    COUNT.remove();
+    return count;
+  }
+
+  /** Statements counted so far in the current scope, or 0 outside a scope. */
+  public static int current() {
+    int[] count = COUNT.get();
+    return count != null ? count[0] : 0;
+  }
+
+  // Installs the given scope (null for none) and returns the one it replaced
+  static int[] replaceScope(int[] scope) {
+    int[] previous = COUNT.get();
+    if (scope != null) {
+      COUNT.set(scope);
+    } else {
+      COUNT.remove();
+    }
+    return previous;
+  }
+
+  static void increment() {
+    int[] count = COUNT.get();
+    if (count != null) {
+      count[0]++;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.attendly.observability;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps the application DataSource so every statement created on a connection is reported to
+ * {@link QueryCounter}. Hibernate and JdbcTemplate both go through it, so the count covers the
+ * JDBC upserts too. A batch counts once, however many rows it carries.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+  private static final Set<String> STATEMENT_FACTORIES =
+      Set.of("createStatement", "prepareStatement", "prepareCall");
+
+  public QueryCountingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return counting(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return counting(super.getConnection(username, password));
+  }
+
+  private static Connection counting(Connection connection) {
+    InvocationHandler handler =
+        (proxy, method, args) -> {
+          if (STATEMENT_FACTORIES.contains(method.getName())) {
+            QueryCounter.increment();
+          }
+          return invoke(connection, method, args);
+        };
+    return (Connection)
+        Proxy.newProxyInstance(
+            QueryCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            handler);
+  }
+
+  private static Object invoke(Connection connection, Method method, Object[] args)
+      throws Throwable {
+    try {
+      return method.invoke(connection, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.attendly.observability;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hit ratio of every Hibernate second-level cache region, including the query results region,
+ * next to the raw {@code hibernate.second.level.cache.requests} counters that
+ * hibernate-micrometer exports.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+  private final Statistics statistics;
+
+  public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    // Entity regions and the query results region alike
+    for (String region : statistics.getSecondLevelCacheRegionNames()) {
+      CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+      if (regionStatistics == null) {
+        continue;
+      }
+      Gauge.builder(
+              "hibernate.second.level.cache.hit.ratio",
+              regionStatistics,
+              s -> ratio(s.getHitCount(), s.getMissCount()))
+          .tag("region", region)
+          .description("Share of second-level cache lookups served from the cache")
+          .register(registry);
+    }
+  }
+
+  private static double ratio(long hits, long misses) {
+    long total = hits + misses;
+    return total == 0 ? 0 : (double) hits / total;
+  }
+}
@@ -3,13 +3,27 @@ package com.attendly.repository;
 import com.attendly.entity.Admin;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AdminRepository extends JpaRepository<Admin, Long> {
 
   Optional<Admin> findByEmail(String email);
 
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE Admin a SET a.password = :newPassword"
+          + " WHERE a.id = :id AND a.password = :oldPassword")
+  int updatePasswordIfUnchanged(
+      @Param("id") Long id,
+      @Param("oldPassword") String oldPassword,
+      @Param("newPassword") String newPassword);
+
   boolean existsByEmail(String email);
 
   boolean existsByInstitution(String institution);
@@ -1,14 +1,19 @@
 package com.attendly.repository;
 
+import com.attendly.dto.AttendanceResponse;
 import com.attendly.entity.Attendance;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository
+    extends JpaRepository<Attendance, Long>, AttendanceRepositoryCustom {
 
   List<Attendance> findByStudentId(Long studentId);
 
@@ -24,4 +29,48 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
   List<Attendance> findByTimetableSlotIdAndDateBetween(
       Long timetableSlotId, LocalDate startDate, LocalDate endDate);
+
+  // Attendance rows joined with subject, student and marking teacher names in a single query
+  String RESPONSE_SELECT =
+      "SELECT new com.attendly.dto.AttendanceResponse(a.id, a.timetableSlotId, ts.subject,"
+          + " a.studentId, s.name, a.date, a.status, a.markedBy, t.name, a.remarks, a.createdAt,"
+          + " a.updatedAt)"
+          + " FROM Attendance a"
+          + " LEFT JOIN TimetableSlot ts ON ts.id = a.timetableSlotId"
+          + " LEFT JOIN Student s ON s.id = a.studentId"
+          + " LEFT JOIN Teacher t ON t.id = a.markedBy";
+
+  @Query(RESPONSE_SELECT + " WHERE a.studentId = :studentId ORDER BY a.date, a.id")
+  List<AttendanceResponse> findResponsesByStudentId(@Param("studentId") Long studentId);
+
+  @Query(
+      RESPONSE_SELECT
+          + " WHERE a.studentId = :studentId AND a.date BETWEEN :startDate AND :endDate"
+          + " ORDER BY a.date, a.id")
+  List<AttendanceResponse> findResponsesByStudentIdAndDateBetween(
+      @Param("studentId") Long studentId,
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate);
+
+  @Query(RESPONSE_SELECT + " WHERE a.timetableSlotId = :slotId AND a.date = :date ORDER BY a.id")
+  List<AttendanceResponse> findResponsesByTimetableSlotIdAndDate(
+      @Param("slotId") Long slotId, @Param("date") LocalDate date);
+
+  @Query(
+      RESPONSE_SELECT
+          + " WHERE a.timetableSlotId = :slotId AND a.studentId = :studentId AND a.date = :date")
+  Optional<AttendanceResponse> findResponseByKey(
+      @Param("slotId") Long slotId,
+      @Param("studentId") Long studentId,
+      @Param("date") LocalDate date);
+
+  // Rows touched by a bulk mark; callers match the exact (slot, student, date) keys
+  @Query(
+      RESPONSE_SELECT
+          + " WHERE a.timetableSlotId IN :slotIds AND a.studentId IN :studentIds"
+          + " AND a.date IN :dates")
+  List<AttendanceResponse> findResponsesForBulkMark(
+      @Param("slotIds") Collection<Long> slotIds,
+      @Param("studentIds") Collection<Long> studentIds,
+      @Param("dates") Collection<LocalDate> dates);
 }
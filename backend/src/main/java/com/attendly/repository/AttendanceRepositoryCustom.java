@@ -0,0 +1,21 @@
+package com.attendly.repository;
+
+import com.attendly.entity.Attendance;
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface AttendanceRepositoryCustom {
+
+  /**
+   * Inserts or updates the given rows in one JDBC batch using INSERT ... ON CONFLICT on the
+   * (timetable_slot_id, student_id, date) unique key. Ids and timestamps on the passed entities
+   * are not refreshed; re-read the rows if they are needed.
+   */
+  void upsertAll(Collection<Attendance> rows);
+
+  /**
+   * Makes sure the monthly attendance partitions exist from the month of {@code from} through
+   * {@code monthsAhead} months later. Already existing partitions are left untouched.
+   */
+  void createPartitions(LocalDate from, int monthsAhead);
+}
@@ -0,0 +1,63 @@
+package com.attendly.repository;
+
+import com.attendly.entity.Attendance;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class AttendanceRepositoryCustomImpl implements AttendanceRepositoryCustom {
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO attendance"
+          + " (timetable_slot_id, student_id, date, status, marked_by, remarks, created_at,"
+          + " updated_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (timetable_slot_id, student_id, date) DO UPDATE SET"
+          + " status = EXCLUDED.status,"
+          + " marked_by = EXCLUDED.marked_by,"
+          + " remarks = EXCLUDED.remarks,"
+          + " updated_at = EXCLUDED.updated_at";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void upsertAll(Collection<Attendance> rows) {
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> batchArgs = new ArrayList<>(rows.size());
+    for (Attendance row : rows) {
+      batchArgs.add(
+          new Object[] {
+            row.getTimetableSlotId(),
+            row.getStudentId(),
+            Date.valueOf(row.getDate()),
+            row.getStatus(),
+            row.getMarkedBy(),
+            row.getRemarks(),
+            now,
+            now
+          });
+    }
+
+    jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+  }
+
+  @Override
+  public void createPartitions(LocalDate from, int monthsAhead) {
+    jdbcTemplate.queryForObject(
+        "SELECT create_attendance_partitions(?, ?)::text",
+        String.class,
+        Date.valueOf(from),
+        monthsAhead);
+  }
+}
@@ -0,0 +1,13 @@
+package com.attendly.repository;
+
+import com.attendly.entity.AttendanceSummary;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttendanceSummaryRepository
+    extends JpaRepository<AttendanceSummary, Long>, AttendanceSummaryRepositoryCustom {
+
+  List<AttendanceSummary> findByStudentIdOrderBySubject(Long studentId);
+}
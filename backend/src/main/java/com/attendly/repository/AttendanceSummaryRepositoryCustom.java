@@ -0,0 +1,49 @@
+package com.attendly.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AttendanceSummaryRepositoryCustom {
+
+  /** Identifies one counter row. */
+  record CounterKey(Long studentId, String subject) {}
+
+  /** Amounts to add to one counter row; either delta may be negative. */
+  record CounterDelta(CounterKey key, int totalClasses, int classesPresent) {}
+
+  /** Outcome of a partial rebuild: the number of counter rows and whose counters they are. */
+  record Rebuilt(int rows, Collection<Long> studentIds) {}
+
+  /**
+   * Creates any missing counter rows and locks all of them (SELECT ... FOR UPDATE, in subject then
+   * student order) until the current transaction ends. Concurrent writers for the same student and
+   * subject are serialised here, so the attendance rows they read afterwards are up to date.
+   */
+  void lockCounters(Collection<CounterKey> keys);
+
+  /** Adds the deltas to counter rows previously locked with {@link #lockCounters}. */
+  void applyDeltas(Collection<CounterDelta> deltas);
+
+  /**
+   * Recomputes every counter from the attendance table, holding all marks off until the current
+   * transaction ends. Returns the number of counter rows.
+   */
+  int rebuildAll();
+
+  /**
+   * Recomputes the counters of the students owned by one admin, locking only those rows as {@link
+   * #lockCounters} does.
+   */
+  Rebuilt rebuildForAdmin(Long adminId);
+
+  /**
+   * Moves a renamed slot's history to its new subject: recounts the old- and new-subject counters
+   * of every student with attendance in the slot, locking only those rows. The slot must already
+   * carry the new subject in the current transaction. Returns the recounted students, including
+   * those who have since left the class.
+   */
+  List<Long> recountRenamedSlot(Long slotId, String oldSubject, String newSubject);
+
+  /** True when attendance rows exist but no counter has ever been built, e.g. on first deploy. */
+  boolean needsBackfill();
+}
@@ -0,0 +1,223 @@
+package com.attendly.repository;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class AttendanceSummaryRepositoryCustomImpl implements AttendanceSummaryRepositoryCustom {
+
+  private static final String CREATE_MISSING_SQL =
+      "INSERT INTO attendance_summary"
+          + " (student_id, subject, total_classes, classes_present, updated_at)"
+          + " VALUES (?, ?, 0, 0, ?)"
+          + " ON CONFLICT (student_id, subject) DO NOTHING";
+
+  private static final String LOCK_SQL =
+      "SELECT id FROM attendance_summary"
+          + " WHERE subject = ? AND student_id = ANY (?)"
+          + " ORDER BY student_id"
+          + " FOR UPDATE";
+
+  private static final String APPLY_DELTA_SQL =
+      "UPDATE attendance_summary"
+          + " SET total_classes = total_classes + ?,"
+          + " classes_present = classes_present + ?,"
+          + " updated_at = ?"
+          + " WHERE student_id = ? AND subject = ?";
+
+  // Marks wait while a full rebuild runs, and the rebuild waits for in-flight marks to commit
+  private static final String LOCK_TABLE_SQL =
+      "LOCK TABLE attendance_summary IN SHARE ROW EXCLUSIVE MODE";
+
+  private static final String REBUILD_SELECT =
+      "SELECT a.student_id, ts.subject, COUNT(*),"
+          + " SUM(CASE WHEN UPPER(a.status) = 'PRESENT' THEN 1 ELSE 0 END), now()"
+          + " FROM attendance a"
+          + " JOIN timetable_slots ts ON ts.id = a.timetable_slot_id";
+
+  private static final String REBUILD_INSERT =
+      "INSERT INTO attendance_summary"
+          + " (student_id, subject, total_classes, classes_present, updated_at) ";
+
+  // Every counter an admin's students have or should have
+  private static final String ADMIN_COUNTERS_SQL =
+      "SELECT a.student_id, ts.subject FROM attendance a"
+          + " JOIN timetable_slots ts ON ts.id = a.timetable_slot_id"
+          + " JOIN students s ON s.id = a.student_id"
+          + " WHERE s.admin_id = ?"
+          + " UNION"
+          + " SELECT sm.student_id, sm.subject FROM attendance_summary sm"
+          + " JOIN students s ON s.id = sm.student_id"
+          + " WHERE s.admin_id = ?";
+
+  // Counters left at zero stay, as a mark waiting on the row lock must still find its row
+  private static final String RECOUNT_ROWS_SQL =
+      "UPDATE attendance_summary sm"
+          + " SET (total_classes, classes_present, updated_at) ="
+          + " (SELECT COUNT(*),"
+          + " COALESCE(SUM(CASE WHEN UPPER(a.status) = 'PRESENT' THEN 1 ELSE 0 END), 0), now()"
+          + " FROM attendance a"
+          + " JOIN timetable_slots ts ON ts.id = a.timetable_slot_id"
+          + " WHERE a.student_id = sm.student_id AND ts.subject = sm.subject)"
+          + " WHERE sm.id = ANY (?)";
+
+  private static final String SLOT_STUDENTS_SQL =
+      "SELECT DISTINCT student_id FROM attendance WHERE timetable_slot_id = ?";
+
+  private static final String RECOUNT_SQL =
+      "UPDATE attendance_summary sm"
+          + " SET (total_classes, classes_present, updated_at) ="
+          + " (SELECT COUNT(*),"
+          + " COALESCE(SUM(CASE WHEN UPPER(a.status) = 'PRESENT' THEN 1 ELSE 0 END), 0), now()"
+          + " FROM attendance a"
+          + " JOIN timetable_slots ts ON ts.id = a.timetable_slot_id"
+          + " WHERE a.student_id = sm.student_id AND ts.subject = sm.subject)"
+          + " WHERE sm.student_id = ANY (?) AND sm.subject IN (?, ?)";
+
+  // The order LOCK_SQL takes the rows in: by subject, then by student
+  private static final Comparator<CounterKey> LOCK_ORDER =
+      Comparator.comparing(CounterKey::subject).thenComparing(CounterKey::studentId);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void lockCounters(Collection<CounterKey> keys) {
+    lockRows(keys);
+  }
+
+  // Returns the ids of the locked rows
+  private List<Long> lockRows(Collection<CounterKey> keys) {
+    List<Long> rowIds = new ArrayList<>(keys.size());
+    if (keys.isEmpty()) {
+      return rowIds;
+    }
+
+    // A fixed lock order keeps two overlapping registers from deadlocking. Rows the insert
+    // creates stay locked until commit, so it must follow that order too
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+        CREATE_MISSING_SQL,
+        keys.stream()
+            .distinct()
+            .sorted(LOCK_ORDER)
+            .map(key -> new Object[] {key.studentId(), key.subject(), now})
+            .collect(Collectors.toList()));
+
+    Map<String, List<Long>> studentsBySubject =
+        keys.stream()
+            .collect(
+                Collectors.groupingBy(
+                    CounterKey::subject,
+                    TreeMap::new,
+                    Collectors.mapping(CounterKey::studentId, Collectors.toList())));
+    studentsBySubject.forEach(
+        (subject, studentIds) ->
+            jdbcTemplate.query(
+                LOCK_SQL,
+                ps -> {
+                  Array ids = ps.getConnection().createArrayOf("bigint", studentIds.toArray());
+                  ps.setString(1, subject);
+                  ps.setArray(2, ids);
+                },
+                rs -> {
+                  rowIds.add(rs.getLong("id"));
+                }));
+    return rowIds;
+  }
+
+  @Override
+  public void applyDeltas(Collection<CounterDelta> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+    for (CounterDelta delta : deltas) {
+      batchArgs.add(
+          new Object[] {
+            delta.totalClasses(),
+            delta.classesPresent(),
+            now,
+            delta.key().studentId(),
+            delta.key().subject()
+          });
+    }
+    jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batchArgs);
+  }
+
+  @Override
+  public int rebuildAll() {
+    jdbcTemplate.execute(LOCK_TABLE_SQL);
+    jdbcTemplate.update("DELETE FROM attendance_summary");
+    return jdbcTemplate.update(
+        REBUILD_INSERT + REBUILD_SELECT + " GROUP BY a.student_id, ts.subject");
+  }
+
+  // Locks only this admin's counters, in the same order marks lock them, so other admins' marks
+  // carry on while it runs
+  @Override
+  public Rebuilt rebuildForAdmin(Long adminId) {
+    List<CounterKey> keys =
+        jdbcTemplate.query(
+            ADMIN_COUNTERS_SQL,
+            (rs, rowNum) -> new CounterKey(rs.getLong("student_id"), rs.getString("subject")),
+            adminId,
+            adminId);
+    List<Long> rowIds = lockRows(keys);
+    if (rowIds.isEmpty()) {
+      return new Rebuilt(0, List.of());
+    }
+    int rows =
+        jdbcTemplate.update(
+            RECOUNT_ROWS_SQL,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", rowIds.toArray())));
+    return new Rebuilt(
+        rows,
+        keys.stream().map(CounterKey::studentId).collect(Collectors.toCollection(TreeSet::new)));
+  }
+
+  @Override
+  public List<Long> recountRenamedSlot(Long slotId, String oldSubject, String newSubject) {
+    // Everyone with history in the slot, including students who have since left the class
+    List<Long> studentIds = jdbcTemplate.queryForList(SLOT_STUDENTS_SQL, Long.class, slotId);
+    if (studentIds.isEmpty()) {
+      return studentIds;
+    }
+
+    List<CounterKey> keys = new ArrayList<>(studentIds.size() * 2);
+    for (Long studentId : studentIds) {
+      keys.add(new CounterKey(studentId, oldSubject));
+      keys.add(new CounterKey(studentId, newSubject));
+    }
+    lockCounters(keys);
+    jdbcTemplate.update(
+        RECOUNT_SQL,
+        ps -> {
+          ps.setArray(1, ps.getConnection().createArrayOf("bigint", studentIds.toArray()));
+          ps.setString(2, oldSubject);
+          ps.setString(3, newSubject);
+        });
+    return studentIds;
+  }
+
+  @Override
+  public boolean needsBackfill() {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(
+            "SELECT NOT EXISTS (SELECT 1 FROM attendance_summary)"
+                + " AND EXISTS (SELECT 1 FROM attendance)",
+            Boolean.class));
+  }
+}
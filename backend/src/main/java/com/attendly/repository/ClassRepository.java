@@ -1,20 +1,26 @@
 package com.attendly.repository;
 
 import com.attendly.entity.Class;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ClassRepository extends JpaRepository<Class, Long> {
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<Class> findByAdminId(Long adminId);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<Class> findByDepartmentId(Long departmentId);
 
   List<Class> findByAdminIdAndDepartmentId(Long adminId, Long departmentId);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   Optional<Class> findByIdAndAdminId(Long id, Long adminId);
 
   List<Class> findByDepartmentIdAndNameContainingIgnoreCase(Long departmentId, String nameQuery);
@@ -1,9 +1,12 @@
 package com.attendly.repository;
 
 import com.attendly.entity.Department;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -11,8 +14,10 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
 
   List<Department> findByAdminId(Long adminId);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<Department> findByAdminIdAndIsActive(Long adminId, Boolean isActive);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   Optional<Department> findByIdAndAdminId(Long id, Long adminId);
 
   boolean existsByCodeAndAdminId(String code, Long adminId);
@@ -0,0 +1,9 @@
+package com.attendly.repository;
+
+import com.attendly.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailOutboxRepository
+    extends JpaRepository<EmailOutbox, Long>, EmailOutboxRepositoryCustom {}
@@ -0,0 +1,37 @@
+package com.attendly.repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepositoryCustom {
+
+  /**
+   * An outbox row claimed for delivery; {@code attempts} already counts this attempt and
+   * identifies the claim. The mark* methods leave the row alone, and return false, once its lease
+   * has run out and another worker has claimed it again.
+   */
+  record ClaimedEmail(Long id, String recipient, String subject, String htmlBody, int attempts) {}
+
+  /**
+   * Claims up to {@code limit} due rows in one statement (SELECT ... FOR UPDATE SKIP LOCKED), so
+   * concurrent workers and instances never claim the same row. Claimed rows stay SENDING for
+   * {@code lease}; a row whose worker died before reporting back is due again once it expires.
+   */
+  List<ClaimedEmail> claimDue(int limit, Duration lease);
+
+  /** Marks the row sent and drops its body. */
+  boolean markSent(ClaimedEmail email);
+
+  /** Puts the row back in the queue, due again at {@code nextAttemptAt}. */
+  boolean markRetry(ClaimedEmail email, LocalDateTime nextAttemptAt, String error);
+
+  /** Gives up on the row and drops its body; the row stays in the table for inspection. */
+  boolean markFailed(ClaimedEmail email, String error);
+
+  /**
+   * Deletes rows sent before {@code cutoff} and failed rows queued before it. Returns the number of
+   * rows deleted.
+   */
+  int deleteFinishedBefore(LocalDateTime cutoff);
+}
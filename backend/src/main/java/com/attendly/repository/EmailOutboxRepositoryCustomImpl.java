@@ -0,0 +1,90 @@
+package com.attendly.repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class EmailOutboxRepositoryCustomImpl implements EmailOutboxRepositoryCustom {
+
+  // Runs on its own outside any transaction: the row locks last only for this statement
+  private static final String CLAIM_SQL =
+      "UPDATE email_outbox"
+          + " SET status = 'SENDING', attempts = attempts + 1, next_attempt_at = ?"
+          + " WHERE id IN ("
+          + "   SELECT id FROM email_outbox"
+          + "   WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= ?"
+          + "   ORDER BY next_attempt_at"
+          + "   LIMIT ?"
+          + "   FOR UPDATE SKIP LOCKED)"
+          + " RETURNING id, recipient, subject, html_body, attempts";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public List<ClaimedEmail> claimDue(int limit, Duration lease) {
+    LocalDateTime now = LocalDateTime.now();
+    return jdbcTemplate.query(
+        CLAIM_SQL,
+        (rs, rowNum) ->
+            new ClaimedEmail(
+                rs.getLong("id"),
+                rs.getString("recipient"),
+                rs.getString("subject"),
+                rs.getString("html_body"),
+                rs.getInt("attempts")),
+        Timestamp.valueOf(now.plus(lease)),
+        Timestamp.valueOf(now),
+        limit);
+  }
+
+  // status and attempts still match only while the row is this attempt's claim
+  @Override
+  public boolean markSent(ClaimedEmail email) {
+    return jdbcTemplate.update(
+            "UPDATE email_outbox"
+                + " SET status = 'SENT', sent_at = ?, html_body = NULL, last_error = NULL"
+                + " WHERE id = ? AND status = 'SENDING' AND attempts = ?",
+            Timestamp.valueOf(LocalDateTime.now()),
+            email.id(),
+            email.attempts())
+        > 0;
+  }
+
+  @Override
+  public boolean markRetry(ClaimedEmail email, LocalDateTime nextAttemptAt, String error) {
+    return jdbcTemplate.update(
+            "UPDATE email_outbox SET status = 'PENDING', next_attempt_at = ?, last_error = ?"
+                + " WHERE id = ? AND status = 'SENDING' AND attempts = ?",
+            Timestamp.valueOf(nextAttemptAt),
+            error,
+            email.id(),
+            email.attempts())
+        > 0;
+  }
+
+  @Override
+  public boolean markFailed(ClaimedEmail email, String error) {
+    return jdbcTemplate.update(
+            "UPDATE email_outbox SET status = 'FAILED', html_body = NULL, last_error = ?"
+                + " WHERE id = ? AND status = 'SENDING' AND attempts = ?",
+            error,
+            email.id(),
+            email.attempts())
+        > 0;
+  }
+
+  // Failed rows have no sent_at; they give up within hours of being queued
+  @Override
+  public int deleteFinishedBefore(LocalDateTime cutoff) {
+    Timestamp before = Timestamp.valueOf(cutoff);
+    return jdbcTemplate.update(
+        "DELETE FROM email_outbox"
+            + " WHERE (status = 'SENT' AND sent_at < ?) OR (status = 'FAILED' AND created_at < ?)",
+        before,
+        before);
+  }
+}
@@ -0,0 +1,94 @@
+package com.attendly.repository;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/** The resource_versions table: version counters behind the student portal's ETags. */
+@Repository
+@RequiredArgsConstructor
+public class ResourceVersionRepository {
+
+  /** What a version counts changes of; ALL has the single id 0. */
+  public enum Kind {
+    ACCOUNT,
+    ATTENDANCE,
+    CLASS,
+    // A teacher's own slots; keyed by teacher id
+    TEACHER,
+    ALL
+  }
+
+  /** A student's versions; 0 for anything never bumped. */
+  public record Versions(long account, long attendance, long timetable, long all) {}
+
+  private static final String FIND_SQL =
+      "SELECT kind, version FROM resource_versions"
+          + " WHERE (kind, id) IN (('ACCOUNT', ?), ('ATTENDANCE', ?), ('CLASS', ?), ('ALL', 0))";
+
+  private static final String CLASS_SQL =
+      "SELECT version FROM resource_versions WHERE kind = 'CLASS' AND id = ?";
+
+  // The teacher's own version and those of every class they currently teach
+  private static final String TEACHER_SQL =
+      "SELECT COALESCE(MAX(version), 0) FROM resource_versions"
+          + " WHERE (kind = 'TEACHER' AND id = ?)"
+          + " OR (kind = 'CLASS' AND id IN"
+          + " (SELECT class_id FROM timetable_slots WHERE teacher_id = ? AND is_active = true))";
+
+  // Ordered, so two writers bumping overlapping students lock the rows in the same order
+  private static final String BUMP_SQL =
+      "INSERT INTO resource_versions (kind, id, version)"
+          + " SELECT ?, id, nextval('resource_version_seq')"
+          + " FROM (SELECT DISTINCT unnest(?::bigint[]) AS id ORDER BY 1) ids"
+          + " ON CONFLICT (kind, id) DO UPDATE SET version = EXCLUDED.version";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /** The versions of one student's account and attendance and of their class, in one query. */
+  public Versions find(Long studentId, Long classId) {
+    Map<Kind, Long> versions = new EnumMap<>(Kind.class);
+    jdbcTemplate.query(
+        FIND_SQL,
+        (RowCallbackHandler)
+            rs -> versions.put(Kind.valueOf(rs.getString("kind")), rs.getLong("version")),
+        studentId,
+        studentId,
+        classId);
+    return new Versions(
+        versions.getOrDefault(Kind.ACCOUNT, 0L),
+        versions.getOrDefault(Kind.ATTENDANCE, 0L),
+        versions.getOrDefault(Kind.CLASS, 0L),
+        versions.getOrDefault(Kind.ALL, 0L));
+  }
+
+  /** The version of one class's timetable and name; 0 if never bumped. */
+  public long findClass(Long classId) {
+    List<Long> versions = jdbcTemplate.queryForList(CLASS_SQL, Long.class, classId);
+    return versions.isEmpty() ? 0L : versions.get(0);
+  }
+
+  /** The newest version among a teacher's slots and the classes they teach, in one query. */
+  public long findTeacher(Long teacherId) {
+    Long version = jdbcTemplate.queryForObject(TEACHER_SQL, Long.class, teacherId, teacherId);
+    return version == null ? 0L : version;
+  }
+
+  /** Gives each of the resources a new version, visible once the current transaction commits. */
+  public void bump(Kind kind, Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.update(
+        BUMP_SQL,
+        ps -> {
+          ps.setString(1, kind.name());
+          ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        });
+  }
+}
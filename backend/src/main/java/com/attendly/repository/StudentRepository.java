@@ -1,16 +1,35 @@
 package com.attendly.repository;
 
+import com.attendly.dto.ClassStudentResponse;
 import com.attendly.entity.Student;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository
+    extends JpaRepository<Student, Long>, StudentRepositoryCustom {
 
   Optional<Student> findByEmail(String email);
 
+  // For the login rehash: writes only the password, and only while it still holds oldPassword
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE Student s SET s.password = :newPassword"
+          + " WHERE s.id = :id AND s.password = :oldPassword")
+  int updatePasswordIfUnchanged(
+      @Param("id") Long id,
+      @Param("oldPassword") String oldPassword,
+      @Param("newPassword") String newPassword);
+
   Optional<Student> findByRollNumber(String rollNumber);
 
   List<Student> findByAdminId(Long adminId);
@@ -25,6 +44,22 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
   List<Student> findByClassIdAndIsActiveOrderByRollNumber(Long classId, Boolean isActive);
 
+  // Active students of the class with their mark for one slot and date, in roll-number order
+  @Query(
+      "SELECT new com.attendly.dto.ClassStudentResponse(s.id, s.name, s.rollNumber, s.email,"
+          + " COALESCE(a.status, '"
+          + ClassStudentResponse.NOT_MARKED
+          + "'))"
+          + " FROM Student s"
+          + " LEFT JOIN Attendance a ON a.studentId = s.id"
+          + " AND a.timetableSlotId = :slotId AND a.date = :date"
+          + " WHERE s.classId = :classId AND s.isActive = true"
+          + " ORDER BY s.rollNumber")
+  List<ClassStudentResponse> findRollCall(
+      @Param("classId") Long classId,
+      @Param("slotId") Long slotId,
+      @Param("date") LocalDate date);
+
   List<Student> findByDepartmentId(Long departmentId);
 
   Optional<Student> findByIdAndAdminId(Long id, Long adminId);
@@ -35,6 +70,19 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
   boolean existsByRegistrationNumber(String registrationNumber);
 
+  // Set-based counterparts of the exists* checks, for bulk imports
+  @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+  List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+  @Query("SELECT s.rollNumber FROM Student s WHERE s.rollNumber IN :rollNumbers")
+  List<String> findExistingRollNumbers(@Param("rollNumbers") Collection<String> rollNumbers);
+
+  @Query(
+      "SELECT s.registrationNumber FROM Student s"
+          + " WHERE s.registrationNumber IN :registrationNumbers")
+  List<String> findExistingRegistrationNumbers(
+      @Param("registrationNumbers") Collection<String> registrationNumbers);
+
   List<Student> findByClassIdAndNameContainingIgnoreCaseOrRollNumberContainingIgnoreCase(
       Long classId, String nameQuery, String rollQuery);
 
@@ -0,0 +1,13 @@
+package com.attendly.repository;
+
+import com.attendly.entity.Student;
+import java.util.Collection;
+
+public interface StudentRepositoryCustom {
+
+  /**
+   * Inserts the given students in one JDBC batch. Ids and timestamps on the passed entities are
+   * not filled in; re-read the rows if they are needed.
+   */
+  void insertAll(Collection<Student> students);
+}
@@ -0,0 +1,53 @@
+package com.attendly.repository;
+
+import com.attendly.entity.Student;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO students"
+          + " (name, email, password, phone, roll_number, registration_number, phone_verified,"
+          + " first_login, class_id, department_id, admin_id, is_active, created_at, updated_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void insertAll(Collection<Student> students) {
+    if (students.isEmpty()) {
+      return;
+    }
+
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> batchArgs = new ArrayList<>(students.size());
+    for (Student student : students) {
+      batchArgs.add(
+          new Object[] {
+            student.getName(),
+            student.getEmail(),
+            student.getPassword(),
+            student.getPhone(),
+            student.getRollNumber(),
+            student.getRegistrationNumber(),
+            student.getPhoneVerified(),
+            student.getFirstLogin(),
+            student.getClassId(),
+            student.getDepartmentId(),
+            student.getAdminId(),
+            student.getIsActive(),
+            now,
+            now
+          });
+    }
+
+    jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+  }
+}
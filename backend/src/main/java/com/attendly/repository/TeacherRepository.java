@@ -1,28 +1,48 @@
 package com.attendly.repository;
 
 import com.attendly.entity.Teacher;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
 
   Optional<Teacher> findByEmail(String email);
 
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE Teacher t SET t.password = :newPassword"
+          + " WHERE t.id = :id AND t.password = :oldPassword")
+  int updatePasswordIfUnchanged(
+      @Param("id") Long id,
+      @Param("oldPassword") String oldPassword,
+      @Param("newPassword") String newPassword);
+
   List<Teacher> findByAdminId(Long adminId);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<Teacher> findByAdminIdAndIsActive(Long adminId, Boolean isActive);
 
   List<Teacher> findByDepartmentId(Long departmentId);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<Teacher> findByDepartmentIdAndIsActive(Long departmentId, Boolean isActive);
 
   List<Teacher> findByAdminIdAndDepartmentId(Long adminId, Long departmentId);
 
   List<Teacher> findByAdminIdAndDepartmentIdAndIsActive(Long adminId, Long departmentId, Boolean isActive);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   Optional<Teacher> findByIdAndAdminId(Long id, Long adminId);
 
   boolean existsByEmail(String email);
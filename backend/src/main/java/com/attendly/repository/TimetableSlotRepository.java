@@ -1,9 +1,17 @@
 package com.attendly.repository;
 
 import com.attendly.entity.TimetableSlot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -13,16 +21,30 @@ public interface TimetableSlotRepository extends JpaRepository<TimetableSlot, Lo
 
   List<TimetableSlot> findByClassIdAndDayOfWeek(Long classId, String dayOfWeek);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<TimetableSlot> findByClassIdAndIsActiveTrue(Long classId);
 
   Optional<TimetableSlot> findByIdAndClassId(Long id, Long classId);
 
+  // Marks hold their slots FOR SHARE and a rename holds its slot FOR UPDATE until commit, so the
+  // two take turns and each reads the subject the other committed rather than a cached one
+  @Lock(LockModeType.PESSIMISTIC_READ)
+  @Query("SELECT ts FROM TimetableSlot ts WHERE ts.id IN :ids ORDER BY ts.id")
+  List<TimetableSlot> findAllByIdForShare(@Param("ids") Collection<Long> ids);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT ts FROM TimetableSlot ts WHERE ts.id = :id")
+  Optional<TimetableSlot> findByIdForUpdate(@Param("id") Long id);
+
   List<TimetableSlot> findByTeacherId(Long teacherId);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<TimetableSlot> findByTeacherIdAndDayOfWeekAndIsActiveTrue(Long teacherId, String dayOfWeek);
 
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<TimetableSlot> findByTeacherIdAndIsActiveTrue(Long teacherId);
 
   // Check for overlapping slots
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   List<TimetableSlot> findByClassIdAndDayOfWeekAndIsActiveTrue(Long classId, String dayOfWeek);
 }
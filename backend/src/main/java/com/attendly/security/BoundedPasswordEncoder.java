@@ -0,0 +1,167 @@
+package com.attendly.security;
+
+import com.attendly.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt on a dedicated, bounded pool. Request threads hand the hash to the pool and wait, so at
+ * most {@code threads} cores ever run BCrypt however many logins arrive at once, and the rest of
+ * the API keeps its CPU. When the queue is full or a hash waits longer than {@code maxWait}, the
+ * call fails fast with {@link PasswordHashingBusyException} (503) instead of piling up threads.
+ *
+ * <p>The pool is exported as the {@code password.hashing} executor metrics (queued, active,
+ * execution and idle timers), plus a {@code password.hashing.rejected} counter.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+  private static final String POOL_NAME = "password.hashing";
+
+  private final BCryptPasswordEncoder delegate;
+  private final int threads;
+  private final ThreadPoolExecutor pool;
+  private final ExecutorService executor;
+  private final Duration maxWait;
+  private final Counter rejected;
+
+  public BoundedPasswordEncoder(
+      int strength, int threads, int queueCapacity, Duration maxWait, MeterRegistry registry) {
+    this.delegate = new BCryptPasswordEncoder(strength);
+    this.threads = threads;
+    this.maxWait = maxWait;
+    AtomicInteger count = new AtomicInteger();
+    this.pool =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.executor = ExecutorServiceMetrics.monitor(registry, pool, POOL_NAME);
+    this.rejected =
+        Counter.builder(POOL_NAME + ".rejected")
+            .description("Password hashes refused because the hashing pool was saturated")
+            .register(registry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return await(submit(() -> delegate.encode(rawPassword)));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return await(submit(() -> delegate.matches(rawPassword, encodedPassword)));
+  }
+
+  /** True when the hash was made with a lower cost factor than the configured one. */
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  /**
+   * Hashes passwords for a bulk job such as a student import. At most one hash per pool thread is
+   * in flight for the job, so it never fills the queue ahead of interactive logins; when logins
+   * have filled it, the job waits for room instead of failing.
+   */
+  public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+    Semaphore inFlight = new Semaphore(threads);
+    List<Future<String>> hashes = new ArrayList<>(rawPasswords.size());
+    for (CharSequence rawPassword : rawPasswords) {
+      inFlight.acquireUninterruptibly();
+      Callable<String> task =
+          () -> {
+            try {
+              return delegate.encode(rawPassword);
+            } finally {
+              inFlight.release();
+            }
+          };
+      while (true) {
+        try {
+          hashes.add(executor.submit(task));
+          break;
+        } catch (RejectedExecutionException e) {
+          pause();
+        }
+      }
+    }
+
+    List<String> encoded = new ArrayList<>(hashes.size());
+    for (Future<String> hash : hashes) {
+      try {
+        encoded.add(hash.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while hashing passwords", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Password hashing failed", e.getCause());
+      }
+    }
+    return encoded;
+  }
+
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  private <T> Future<T> submit(Callable<T> task) {
+    try {
+      return executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new PasswordHashingBusyException();
+    }
+  }
+
+  private <T> T await(Future<T> result) {
+    try {
+      return result.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      // Nobody is waiting for it any more; skip it if it has not started
+      result.cancel(false);
+      rejected.increment();
+      throw new PasswordHashingBusyException();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while hashing a password", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  private static void pause() {
+    try {
+      Thread.sleep(20);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the hashing pool", e);
+    }
+  }
+}
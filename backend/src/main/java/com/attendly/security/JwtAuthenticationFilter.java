@@ -5,9 +5,14 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -21,6 +26,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtService jwtService;
   private final UserDetailsService userDetailsService;
+  private final UserDetailsCache userDetailsCache;
+  private final TokenRevocationList tokenRevocationList;
+
+  // Build the principal from token claims alone instead of loading the user
+  @Value("${jwt.stateless:false}")
+  private boolean stateless;
 
   @Override
   protected void doFilterInternal(
@@ -30,7 +41,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     final String authHeader = request.getHeader("Authorization");
     final String jwt;
-    final String userEmail;
 
     if (authHeader == null || !authHeader.startsWith("Bearer ")) {
       filterChain.doFilter(request, response);
@@ -40,26 +50,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     jwt = authHeader.substring(7);
 
     try {
-      userEmail = jwtService.extractUsername(jwt);
+      // Verifies the signature once; every claim below is read from the parsed token
+      VerifiedToken token = jwtService.parse(jwt);
+      String userEmail = token.subject();
 
       if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        // Extract user info from JWT
+        // Try userId first (for students/teachers), then adminId (for admins)
+        Long userId = token.userId();
+        String role = token.role();
+        String userType = role;
+        if (userId == null) {
+          userId = token.adminId();
+          userType = UserDetailsCache.ADMIN;
+        }
 
-        if (jwtService.isTokenValid(jwt, userDetails)) {
-          // Extract user info from JWT
-          // Try userId first (for students/teachers), then adminId (for admins)
-          Long userId = jwtService.extractUserId(jwt);
-          if (userId == null) {
-            userId = jwtService.extractAdminId(jwt);
-          }
-          String name = jwtService.extractName(jwt);
+        Collection<? extends GrantedAuthority> authorities =
+            stateless && userId != null && role != null
+                ? authoritiesFromClaims(token, userType, userId, role)
+                : authoritiesFromUser(token, userType, userId);
 
+        if (authorities != null) {
           // Create UserPrincipal with user details
-          UserPrincipal userPrincipal = new UserPrincipal(userId, userEmail, name);
+          UserPrincipal userPrincipal =
+              new UserPrincipal(userId, userEmail, token.name(), token.classId());
 
           UsernamePasswordAuthenticationToken authToken =
-              new UsernamePasswordAuthenticationToken(
-                  userPrincipal, null, userDetails.getAuthorities());
+              new UsernamePasswordAuthenticationToken(userPrincipal, null, authorities);
           authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
           SecurityContextHolder.getContext().setAuthentication(authToken);
         }
@@ -70,4 +87,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     filterChain.doFilter(request, response);
   }
+
+  // Stateless mode: the verified claims are trusted as-is, only the revocation list is checked
+  private Collection<? extends GrantedAuthority> authoritiesFromClaims(
+      VerifiedToken token, String userType, Long userId, String role) {
+    if (tokenRevocationList.isRevoked(userType, userId, token.issuedAt().toInstant())) {
+      return null;
+    }
+    return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+  }
+
+  private Collection<? extends GrantedAuthority> authoritiesFromUser(
+      VerifiedToken token, String userType, Long userId) {
+    UserDetails userDetails =
+        userId != null && userType != null
+            ? userDetailsCache.get(userType, userId)
+            : this.userDetailsService.loadUserByUsername(token.subject());
+    if (!userDetails.isEnabled() || !jwtService.isTokenValid(token, userDetails)) {
+      return null;
+    }
+    return userDetails.getAuthorities();
+  }
 }
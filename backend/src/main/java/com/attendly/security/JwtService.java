@@ -1,9 +1,11 @@
 package com.attendly.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,20 +24,42 @@ public class JwtService {
   @Value("${jwt.expiration}")
   private long jwtExpiration;
 
+  // Decoding the secret and building the parser are done once, not per token
+  private SecretKey signInKey;
+  private JwtParser jwtParser;
+
+  @PostConstruct
+  void init() {
+    signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    jwtParser = Jwts.parser().verifyWith(signInKey).build();
+  }
+
+  /**
+   * Verifies the signature and expiry of the token once and returns its claims. Throws a {@link
+   * io.jsonwebtoken.JwtException} if the token is invalid or expired.
+   */
+  public VerifiedToken parse(String token) {
+    return VerifiedToken.of(extractAllClaims(token));
+  }
+
   public String extractUsername(String token) {
-    return extractClaim(token, Claims::getSubject);
+    return parse(token).subject();
   }
 
   public Long extractAdminId(String token) {
-    return extractClaim(token, claims -> claims.get("adminId", Long.class));
+    return parse(token).adminId();
   }
 
   public Long extractUserId(String token) {
-    return extractClaim(token, claims -> claims.get("userId", Long.class));
+    return parse(token).userId();
+  }
+
+  public String extractRole(String token) {
+    return parse(token).role();
   }
 
   public String extractName(String token) {
-    return extractClaim(token, claims -> claims.get("name", String.class));
+    return parse(token).name();
   }
 
   public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -58,29 +82,19 @@ public class JwtService {
         .subject(userDetails.getUsername())
         .issuedAt(new Date(System.currentTimeMillis()))
         .expiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSignInKey())
+        .signWith(signInKey)
         .compact();
   }
 
   public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-  }
-
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+    return isTokenValid(parse(token), userDetails);
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+    return token.subject().equals(userDetails.getUsername()) && !token.isExpired();
   }
 
   private Claims extractAllClaims(String token) {
-    return Jwts.parser().verifyWith(getSignInKey()).build().parseSignedClaims(token).getPayload();
-  }
-
-  private SecretKey getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+    return jwtParser.parseSignedClaims(token).getPayload();
   }
 }
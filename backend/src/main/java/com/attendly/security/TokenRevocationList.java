@@ -0,0 +1,39 @@
+package com.attendly.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory record of users whose earlier tokens must no longer be accepted, keyed by role and
+ * id. Only consulted in stateless JWT mode, where nothing else would notice a changed password,
+ * email or active flag before the token expires.
+ *
+ * <p>Entries live as long as a token does, so the list stays small. It is per instance: with
+ * several backend instances, revocations only reach the one that handled the change.
+ */
+@Component
+public class TokenRevocationList {
+
+  private final Cache<String, Instant> revokedBefore;
+
+  public TokenRevocationList(@Value("${jwt.expiration}") long jwtExpiration) {
+    this.revokedBefore =
+        Caffeine.newBuilder().expireAfterWrite(Duration.ofMillis(jwtExpiration)).build();
+  }
+
+  /** Rejects every token for the user issued before now. */
+  public void revoke(String role, Long id) {
+    // iat has second precision, so a token issued within this second is still accepted
+    revokedBefore.put(role + ":" + id, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+  }
+
+  public boolean isRevoked(String role, Long id, Instant issuedAt) {
+    Instant cutoff = revokedBefore.getIfPresent(role + ":" + id);
+    return cutoff != null && issuedAt.isBefore(cutoff);
+  }
+}
@@ -0,0 +1,114 @@
+package com.attendly.security;
+
+import com.attendly.service.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, time-limited cache of the users behind authenticated requests, keyed by role and id
+ * from the token claims. Entries are immutable snapshots (email, authorities, enabled flag) and
+ * never hold the password hash. A miss is loaded on the calling thread outside the cache's locks,
+ * so it never pins a virtual thread while waiting on the database; concurrent misses for the same
+ * user wait for that one load.
+ *
+ * <p>Services that change a user's email, password, active flag or class (carried in student
+ * tokens) must call {@link #invalidateAfterCommit}; other edits only need {@link
+ * #evictAfterCommit}. The TTL bounds staleness for anything that slips past that.
+ */
+@Component
+public class UserDetailsCache {
+
+  public static final String ADMIN = "ADMIN";
+  public static final String STUDENT = "STUDENT";
+  public static final String TEACHER = "TEACHER";
+
+  private final UserDetailsServiceImpl userDetailsService;
+  private final TokenRevocationList tokenRevocationList;
+  private final AsyncCache<String, UserDetails> cache;
+
+  public UserDetailsCache(
+      UserDetailsServiceImpl userDetailsService,
+      TokenRevocationList tokenRevocationList,
+      @Value("${security.user-cache.max-size:10000}") long maxSize,
+      @Value("${security.user-cache.ttl:60s}") Duration ttl) {
+    this.userDetailsService = userDetailsService;
+    this.tokenRevocationList = tokenRevocationList;
+    this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).buildAsync();
+  }
+
+  public UserDetails get(String role, Long id) {
+    CompletableFuture<UserDetails> loading = new CompletableFuture<>();
+    CompletableFuture<UserDetails> user = cache.get(key(role, id), (key, executor) -> loading);
+    if (user == loading) {
+      try {
+        loading.complete(snapshot(userDetailsService.loadUserById(role, id)));
+      } catch (RuntimeException e) {
+        // Failed loads are dropped from the cache
+        loading.completeExceptionally(e);
+        throw e;
+      }
+    }
+    try {
+      return user.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+  }
+
+  public void evict(String role, Long id) {
+    cache.synchronous().invalidate(key(role, id));
+  }
+
+  /**
+   * Drops the cached user and revokes the user's existing tokens once the current transaction
+   * has committed. Doing it earlier would let a concurrent request re-cache the old row.
+   */
+  public void invalidateAfterCommit(String role, Long id) {
+    afterCommit(() -> invalidate(role, id));
+  }
+
+  /** Drops the cached user once the current transaction has committed; tokens stay valid. */
+  public void evictAfterCommit(String role, Long id) {
+    afterCommit(() -> evict(role, id));
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  private void invalidate(String role, Long id) {
+    evict(role, id);
+    tokenRevocationList.revoke(role, id);
+  }
+
+  private static String key(String role, Long id) {
+    return role + ":" + id;
+  }
+
+  private static UserDetails snapshot(UserDetails user) {
+    return User.withUsername(user.getUsername())
+        .password("")
+        .authorities(user.getAuthorities())
+        .disabled(!user.isEnabled())
+        .build();
+  }
+}
@@ -9,4 +9,6 @@ public class UserPrincipal {
   private Long id;
   private String email;
   private String name;
+  // Students only, from the token; may lag behind a class change until the next login
+  private Long classId;
 }
@@ -0,0 +1,35 @@
+package com.attendly.security;
+
+import io.jsonwebtoken.Claims;
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked by {@link
+ * JwtService#parse}. Immutable, so it can be read freely without re-parsing the token.
+ */
+public record VerifiedToken(
+    String subject,
+    Long userId,
+    Long adminId,
+    String role,
+    String name,
+    Long classId,
+    Date issuedAt,
+    Date expiration) {
+
+  static VerifiedToken of(Claims claims) {
+    return new VerifiedToken(
+        claims.getSubject(),
+        claims.get("userId", Long.class),
+        claims.get("adminId", Long.class),
+        claims.get("role", String.class),
+        claims.get("name", String.class),
+        claims.get("classId", Long.class),
+        claims.getIssuedAt(),
+        claims.getExpiration());
+  }
+
+  public boolean isExpired() {
+    return expiration.before(new Date());
+  }
+}
@@ -0,0 +1,36 @@
+package com.attendly.service;
+
+import com.attendly.repository.AttendanceRepository;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps monthly attendance partitions created ahead of time so marks land in their own month
+ * rather than the default partition.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendancePartitionService {
+
+  private final AttendanceRepository attendanceRepository;
+
+  @Value("${attendance.partitions.months-ahead:3}")
+  private int monthsAhead;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${attendance.partitions.cron:0 0 3 * * *}")
+  @Transactional
+  public void createUpcomingPartitions() {
+    LocalDate today = LocalDate.now();
+    attendanceRepository.createPartitions(today, monthsAhead);
+    log.debug("Attendance partitions ensured through {}", today.plusMonths(monthsAhead));
+  }
+}
@@ -5,19 +5,26 @@ import com.attendly.dto.AttendanceRequest;
 import com.attendly.dto.AttendanceResponse;
 import com.attendly.dto.SubjectAttendanceSummary;
 import com.attendly.entity.Attendance;
+import com.attendly.entity.AttendanceSummary;
 import com.attendly.entity.Student;
 import com.attendly.entity.TimetableSlot;
+import com.attendly.exception.BadRequestException;
 import com.attendly.exception.ResourceNotFoundException;
 import com.attendly.repository.AttendanceRepository;
+import com.attendly.repository.AttendanceSummaryRepository;
+import com.attendly.repository.AttendanceSummaryRepositoryCustom.CounterDelta;
+import com.attendly.repository.AttendanceSummaryRepositoryCustom.CounterKey;
 import com.attendly.repository.StudentRepository;
-import com.attendly.repository.TeacherRepository;
 import com.attendly.repository.TimetableSlotRepository;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -28,16 +35,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class AttendanceService {
 
   private final AttendanceRepository attendanceRepository;
+  private final AttendanceSummaryRepository attendanceSummaryRepository;
   private final TimetableSlotRepository timetableSlotRepository;
   private final StudentRepository studentRepository;
-  private final TeacherRepository teacherRepository;
+  private final ResourceVersions resourceVersions;
 
   @Transactional
   public AttendanceResponse markAttendance(AttendanceRequest request, Long teacherId) {
-    // Verify timetable slot exists
+    // Verify timetable slot exists; locked so a rename cannot change its subject until we commit
     TimetableSlot slot =
-        timetableSlotRepository
-            .findById(request.getTimetableSlotId())
+        timetableSlotRepository.findAllByIdForShare(List.of(request.getTimetableSlotId())).stream()
+            .findFirst()
             .orElseThrow(
                 () ->
                     new ResourceNotFoundException(
@@ -54,24 +62,79 @@ public class AttendanceService {
 
     // Verify student belongs to the same class
     if (!student.getClassId().equals(slot.getClassId())) {
-      throw new IllegalArgumentException("Student does not belong to this class");
+      throw new BadRequestException("Student does not belong to this class");
     }
 
-    // Check if attendance already exists
-    Optional<Attendance> existingAttendance =
-        attendanceRepository.findByTimetableSlotIdAndStudentIdAndDate(
-            request.getTimetableSlotId(), request.getStudentId(), request.getDate());
-
-    Attendance attendance;
-    if (existingAttendance.isPresent()) {
-      // Update existing attendance
-      attendance = existingAttendance.get();
-      attendance.setStatus(request.getStatus());
-      attendance.setMarkedBy(teacherId);
-      attendance.setRemarks(request.getRemarks());
-    } else {
-      // Create new attendance record
-      attendance =
+    // Insert or update in one statement keyed on (slot, student, date)
+    Attendance attendance =
+        Attendance.builder()
+            .timetableSlotId(request.getTimetableSlotId())
+            .studentId(request.getStudentId())
+            .date(request.getDate())
+            .status(request.getStatus())
+            .markedBy(teacherId)
+            .remarks(request.getRemarks())
+            .build();
+    writeAttendance(
+        Map.of(AttendanceKey.of(request), attendance),
+        Map.of(slot.getId(), slot),
+        Set.of(request.getStudentId()),
+        Set.of(request.getDate()));
+
+    return attendanceRepository
+        .findResponseByKey(request.getTimetableSlotId(), request.getStudentId(), request.getDate())
+        .orElseThrow(() -> new IllegalStateException("Attendance upsert returned no row"));
+  }
+
+  /**
+   * Marks a whole register in a fixed number of queries: slots and students are each loaded with
+   * one query, validated in memory, upserted as one JDBC batch together with the summary counters
+   * and read back with one projection query.
+   */
+  @Transactional
+  public List<AttendanceResponse> markBulkAttendance(
+      List<AttendanceRequest> requests, Long teacherId) {
+    if (requests.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    Set<Long> slotIds =
+        requests.stream().map(AttendanceRequest::getTimetableSlotId).collect(Collectors.toSet());
+    Set<Long> studentIds =
+        requests.stream().map(AttendanceRequest::getStudentId).collect(Collectors.toSet());
+    Set<LocalDate> dates =
+        requests.stream().map(AttendanceRequest::getDate).collect(Collectors.toSet());
+
+    // Locked so a rename cannot change their subjects until we commit
+    Map<Long, TimetableSlot> slots =
+        timetableSlotRepository.findAllByIdForShare(slotIds).stream()
+            .collect(Collectors.toMap(TimetableSlot::getId, Function.identity()));
+    Map<Long, Student> students =
+        studentRepository.findAllById(studentIds).stream()
+            .collect(Collectors.toMap(Student::getId, Function.identity()));
+
+    // Validate every request before touching any row
+    for (AttendanceRequest request : requests) {
+      TimetableSlot slot = slots.get(request.getTimetableSlotId());
+      if (slot == null) {
+        throw new ResourceNotFoundException(
+            "Timetable slot not found with id: " + request.getTimetableSlotId());
+      }
+      Student student = students.get(request.getStudentId());
+      if (student == null) {
+        throw new ResourceNotFoundException(
+            "Student not found with id: " + request.getStudentId());
+      }
+      if (!student.getClassId().equals(slot.getClassId())) {
+        throw new BadRequestException("Student does not belong to this class");
+      }
+    }
+
+    // Later entries for the same key win, exactly as repeated single marks would
+    Map<AttendanceKey, Attendance> toSave = new LinkedHashMap<>();
+    for (AttendanceRequest request : requests) {
+      toSave.put(
+          AttendanceKey.of(request),
           Attendance.builder()
               .timetableSlotId(request.getTimetableSlotId())
               .studentId(request.getStudentId())
@@ -79,66 +142,49 @@ public class AttendanceService {
               .status(request.getStatus())
               .markedBy(teacherId)
               .remarks(request.getRemarks())
-              .build();
+              .build());
     }
+    writeAttendance(toSave, slots, studentIds, dates);
 
-    Attendance savedAttendance = attendanceRepository.save(attendance);
-    return mapToResponse(savedAttendance, student, slot);
-  }
+    Map<AttendanceKey, AttendanceResponse> saved =
+        attendanceRepository.findResponsesForBulkMark(slotIds, studentIds, dates).stream()
+            .map(response -> Map.entry(AttendanceKey.of(response), response))
+            .filter(entry -> toSave.containsKey(entry.getKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-  @Transactional
-  public List<AttendanceResponse> markBulkAttendance(
-      List<AttendanceRequest> requests, Long teacherId) {
     return requests.stream()
-        .map(request -> markAttendance(request, teacherId))
+        .map(request -> saved.get(AttendanceKey.of(request)))
         .collect(Collectors.toList());
   }
 
   public List<AttendanceResponse> getAttendanceByStudent(
       Long studentId, LocalDate startDate, LocalDate endDate) {
-    // Verify student exists
-    Student student =
-        studentRepository
-            .findById(studentId)
-            .orElseThrow(
-                () -> new ResourceNotFoundException("Student not found with id: " + studentId));
-
-    List<Attendance> attendanceList;
+    List<AttendanceResponse> attendance;
     if (startDate != null && endDate != null) {
-      attendanceList =
-          attendanceRepository.findByStudentIdAndDateBetween(studentId, startDate, endDate);
+      attendance =
+          attendanceRepository.findResponsesByStudentIdAndDateBetween(
+              studentId, startDate, endDate);
     } else {
-      attendanceList = attendanceRepository.findByStudentId(studentId);
+      attendance = attendanceRepository.findResponsesByStudentId(studentId);
     }
 
-    return attendanceList.stream()
-        .map(
-            attendance -> {
-              TimetableSlot slot =
-                  timetableSlotRepository.findById(attendance.getTimetableSlotId()).orElse(null);
-              return mapToResponse(attendance, student, slot);
-            })
-        .collect(Collectors.toList());
+    // Only an empty result needs the extra lookup to tell "no rows" from "no such student"
+    if (attendance.isEmpty() && !studentRepository.existsById(studentId)) {
+      throw new ResourceNotFoundException("Student not found with id: " + studentId);
+    }
+
+    return attendance;
   }
 
   public List<AttendanceResponse> getAttendanceBySlot(Long slotId, LocalDate date) {
-    // Verify slot exists
-    TimetableSlot slot =
-        timetableSlotRepository
-            .findById(slotId)
-            .orElseThrow(
-                () -> new ResourceNotFoundException("Timetable slot not found with id: " + slotId));
+    List<AttendanceResponse> attendance =
+        attendanceRepository.findResponsesByTimetableSlotIdAndDate(slotId, date);
 
-    List<Attendance> attendanceList =
-        attendanceRepository.findByTimetableSlotIdAndDate(slotId, date);
+    if (attendance.isEmpty() && !timetableSlotRepository.existsById(slotId)) {
+      throw new ResourceNotFoundException("Timetable slot not found with id: " + slotId);
+    }
 
-    return attendanceList.stream()
-        .map(
-            attendance -> {
-              Student student = studentRepository.findById(attendance.getStudentId()).orElse(null);
-              return mapToResponse(attendance, student, slot);
-            })
-        .collect(Collectors.toList());
+    return attendance;
   }
 
   public List<AttendanceResponse> getTodayAttendanceForStudent(Long studentId) {
@@ -147,104 +193,110 @@ public class AttendanceService {
   }
 
   public AttendanceReportResponse getStudentAttendanceReport(Long studentId) {
-    // Verify student exists
-    Student student =
-        studentRepository
-            .findById(studentId)
-            .orElseThrow(
-                () -> new ResourceNotFoundException("Student not found with id: " + studentId));
-
-    // Get all attendance records for the student
-    List<Attendance> attendanceList = attendanceRepository.findByStudentId(studentId);
-
-    // Calculate overall stats
-    int totalClasses = attendanceList.size();
-    int classesPresent =
-        (int)
-            attendanceList.stream()
-                .filter(a -> "PRESENT".equalsIgnoreCase(a.getStatus()))
-                .count();
-    double overallPercentage = totalClasses > 0 ? (classesPresent * 100.0) / totalClasses : 0.0;
-
-    // Calculate subject-wise breakdown
-    Map<String, SubjectStats> subjectStatsMap = new HashMap<>();
-
-    for (Attendance attendance : attendanceList) {
-      TimetableSlot slot =
-          timetableSlotRepository.findById(attendance.getTimetableSlotId()).orElse(null);
-      if (slot != null && slot.getSubject() != null) {
-        String subjectName = slot.getSubject();
-        SubjectStats stats = subjectStatsMap.getOrDefault(subjectName, new SubjectStats());
-        stats.totalClasses++;
-        if ("PRESENT".equalsIgnoreCase(attendance.getStatus())) {
-          stats.classesPresent++;
-        }
-        subjectStatsMap.put(subjectName, stats);
-      }
+    List<AttendanceSummary> summaries =
+        attendanceSummaryRepository.findByStudentIdOrderBySubject(studentId);
+
+    if (summaries.isEmpty() && !studentRepository.existsById(studentId)) {
+      throw new ResourceNotFoundException("Student not found with id: " + studentId);
     }
 
-    // Convert to list of SubjectAttendanceSummary
+    int totalClasses = 0;
+    int classesPresent = 0;
     List<SubjectAttendanceSummary> subjectBreakdown = new ArrayList<>();
-    for (Map.Entry<String, SubjectStats> entry : subjectStatsMap.entrySet()) {
-      String subjectName = entry.getKey();
-      SubjectStats stats = entry.getValue();
-      double percentage =
-          stats.totalClasses > 0 ? (stats.classesPresent * 100.0) / stats.totalClasses : 0.0;
-
+    for (AttendanceSummary summary : summaries) {
+      if (summary.getTotalClasses() == 0) {
+        continue;
+      }
+      totalClasses += summary.getTotalClasses();
+      classesPresent += summary.getClassesPresent();
       subjectBreakdown.add(
           SubjectAttendanceSummary.builder()
-              .subjectName(subjectName)
-              .totalClasses(stats.totalClasses)
-              .classesPresent(stats.classesPresent)
-              .percentage(percentage)
+              .subjectName(summary.getSubject())
+              .totalClasses(summary.getTotalClasses())
+              .classesPresent(summary.getClassesPresent())
+              .percentage(percentage(summary.getClassesPresent(), summary.getTotalClasses()))
               .build());
     }
 
-    // Sort by subject name
-    subjectBreakdown.sort((a, b) -> a.getSubjectName().compareTo(b.getSubjectName()));
-
     return AttendanceReportResponse.builder()
-        .overallPercentage(overallPercentage)
+        .overallPercentage(percentage(classesPresent, totalClasses))
         .totalClasses(totalClasses)
         .classesPresent(classesPresent)
         .subjectBreakdown(subjectBreakdown)
         .build();
   }
 
-  // Helper class for calculating subject statistics
-  private static class SubjectStats {
-    int totalClasses = 0;
-    int classesPresent = 0;
+  /**
+   * Upserts the rows and moves the per-subject counters by the difference between each row's
+   * previous and new status. The counter rows are locked first, so the previous statuses read
+   * afterwards cannot be changed underneath us by a concurrent mark for the same student. The
+   * slots must have been loaded with {@code findAllByIdForShare}, so their subjects, which key the
+   * counters, stay as read until we commit.
+   */
+  private void writeAttendance(
+      Map<AttendanceKey, Attendance> rows,
+      Map<Long, TimetableSlot> slots,
+      Set<Long> studentIds,
+      Set<LocalDate> dates) {
+    Map<AttendanceKey, CounterKey> counterKeys = new HashMap<>();
+    rows.forEach(
+        (key, row) ->
+            counterKeys.put(
+                key,
+                new CounterKey(
+                    row.getStudentId(), slots.get(row.getTimetableSlotId()).getSubject())));
+    attendanceSummaryRepository.lockCounters(new HashSet<>(counterKeys.values()));
+
+    Map<AttendanceKey, String> previousStatuses = new HashMap<>();
+    for (AttendanceResponse previous :
+        attendanceRepository.findResponsesForBulkMark(slots.keySet(), studentIds, dates)) {
+      previousStatuses.put(AttendanceKey.of(previous), previous.getStatus());
+    }
+
+    attendanceRepository.upsertAll(rows.values());
+
+    Map<CounterKey, CounterDelta> deltas = new HashMap<>();
+    rows.forEach(
+        (key, row) -> {
+          int total = previousStatuses.containsKey(key) ? 0 : 1;
+          int present =
+              (isPresent(row.getStatus()) ? 1 : 0)
+                  - (isPresent(previousStatuses.get(key)) ? 1 : 0);
+          if (total != 0 || present != 0) {
+            CounterKey counterKey = counterKeys.get(key);
+            deltas.merge(
+                counterKey,
+                new CounterDelta(counterKey, total, present),
+                (a, b) ->
+                    new CounterDelta(
+                        counterKey,
+                        a.totalClasses() + b.totalClasses(),
+                        a.classesPresent() + b.classesPresent()));
+          }
+        });
+    attendanceSummaryRepository.applyDeltas(deltas.values());
+    resourceVersions.bumpAttendance(studentIds);
   }
 
-  private AttendanceResponse mapToResponse(
-      Attendance attendance, Student student, TimetableSlot slot) {
-    AttendanceResponse.AttendanceResponseBuilder builder =
-        AttendanceResponse.builder()
-            .id(attendance.getId())
-            .timetableSlotId(attendance.getTimetableSlotId())
-            .studentId(attendance.getStudentId())
-            .date(attendance.getDate())
-            .status(attendance.getStatus())
-            .markedBy(attendance.getMarkedBy())
-            .remarks(attendance.getRemarks())
-            .createdAt(attendance.getCreatedAt())
-            .updatedAt(attendance.getUpdatedAt());
-
-    if (student != null) {
-      builder.studentName(student.getName());
-    }
+  private static boolean isPresent(String status) {
+    return "PRESENT".equalsIgnoreCase(status);
+  }
 
-    if (slot != null) {
-      builder.subject(slot.getSubject());
-    }
+  private static double percentage(int present, int total) {
+    return total > 0 ? (present * 100.0) / total : 0.0;
+  }
+
+  // Natural key of an attendance row: one mark per student per slot per day
+  private record AttendanceKey(Long timetableSlotId, Long studentId, LocalDate date) {
 
-    if (attendance.getMarkedBy() != null) {
-      teacherRepository
-          .findById(attendance.getMarkedBy())
-          .ifPresent(teacher -> builder.markedByName(teacher.getName()));
+    static AttendanceKey of(AttendanceRequest request) {
+      return new AttendanceKey(
+          request.getTimetableSlotId(), request.getStudentId(), request.getDate());
     }
 
-    return builder.build();
+    static AttendanceKey of(AttendanceResponse response) {
+      return new AttendanceKey(
+          response.getTimetableSlotId(), response.getStudentId(), response.getDate());
+    }
   }
 }
@@ -0,0 +1,52 @@
+package com.attendly.service;
+
+import com.attendly.repository.AttendanceSummaryRepository;
+import com.attendly.repository.AttendanceSummaryRepositoryCustom.Rebuilt;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Rebuilds the attendance_summary counters from the raw attendance table. */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceSummaryService {
+
+  private final AttendanceSummaryRepository attendanceSummaryRepository;
+  private final ResourceVersions resourceVersions;
+
+  @Transactional
+  public int rebuildAll() {
+    int rows = attendanceSummaryRepository.rebuildAll();
+    resourceVersions.bumpAll();
+    log.info("Rebuilt {} attendance summary rows", rows);
+    return rows;
+  }
+
+  @Transactional
+  public int rebuildForAdmin(Long adminId) {
+    Rebuilt rebuilt = attendanceSummaryRepository.rebuildForAdmin(adminId);
+    // Only this admin's students can see different counters
+    resourceVersions.bumpAttendance(rebuilt.studentIds());
+    return rebuilt.rows();
+  }
+
+  @Transactional
+  public void recountRenamedSlot(Long slotId, String oldSubject, String newSubject) {
+    // Students who have left the class still see the slot's subject in their history
+    resourceVersions.bumpAttendance(
+        attendanceSummaryRepository.recountRenamedSlot(slotId, oldSubject, newSubject));
+  }
+
+  // Fills the counters once when the application first starts against existing attendance data
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  public void backfillIfEmpty() {
+    if (attendanceSummaryRepository.needsBackfill()) {
+      rebuildAll();
+    }
+  }
+}
@@ -63,13 +63,14 @@ public class AuthService {
     Map<String, Object> claims = new HashMap<>();
     claims.put("adminId", admin.getId());
     claims.put("name", admin.getName());
+    claims.put("role", admin.getRole().name());
     String jwtToken = jwtService.generateToken(claims, admin);
 
     return new AuthResponse(
         jwtToken, admin.getId(), admin.getName(), admin.getEmail(), admin.getRole().name());
   }
 
-  @Transactional(readOnly = true)
+  // Not transactional: a login waiting on BCrypt must not hold a pooled connection
   public AuthResponse login(LoginRequest request) {
     // Authenticate user
     authenticationManager.authenticate(
@@ -82,10 +83,18 @@ public class AuthService {
             .orElseThrow(
                 () -> new com.attendly.exception.ResourceNotFoundException("Admin not found"));
 
+    // Same password under the current cost factor; tokens and cached users stay valid. Only the
+    // password column is written, so an edit made while BCrypt ran is not undone
+    if (passwordEncoder.upgradeEncoding(admin.getPassword())) {
+      adminRepository.updatePasswordIfUnchanged(
+          admin.getId(), admin.getPassword(), passwordEncoder.encode(request.getPassword()));
+    }
+
     // Generate JWT token with extra claims
     Map<String, Object> claims = new HashMap<>();
     claims.put("adminId", admin.getId());
     claims.put("name", admin.getName());
+    claims.put("role", admin.getRole().name());
     String jwtToken = jwtService.generateToken(claims, admin);
 
     return new AuthResponse(
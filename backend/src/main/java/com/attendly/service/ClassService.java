@@ -6,7 +6,9 @@ import com.attendly.exception.ResourceNotFoundException;
 import com.attendly.repository.ClassRepository;
 import com.attendly.repository.DepartmentRepository;
 import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,7 @@ public class ClassService {
 
   private final ClassRepository classRepository;
   private final DepartmentRepository departmentRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional
   public Class createClass(ClassRequest request, Long adminId) {
@@ -79,7 +82,10 @@ public class ClassService {
     classEntity.setYear(request.getYear());
     classEntity.setDepartmentId(request.getDepartmentId());
 
-    return classRepository.save(classEntity);
+    Class saved = classRepository.save(classEntity);
+    // Teacher timetables show the class name
+    eventPublisher.publishEvent(new TimetableChangedEvent(id, Set.of()));
+    return saved;
   }
 
   @Transactional
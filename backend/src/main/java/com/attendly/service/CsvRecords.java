@@ -0,0 +1,67 @@
+package com.attendly.service;
+
+import com.attendly.exception.BadRequestException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma-separated fields, optionally double-quoted, where a quoted field
+ * may hold commas, line breaks and {@code ""} for a literal quote. Blank lines are skipped.
+ */
+final class CsvRecords {
+
+  private CsvRecords() {}
+
+  static List<List<String>> parse(String text) {
+    List<List<String>> records = new ArrayList<>();
+    List<String> record = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean blankLine = true;
+
+    // A byte order mark from spreadsheet exports would otherwise end up in the first column name
+    int start = text.startsWith("\uFEFF") ? 1 : 0;
+    for (int i = start; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+        blankLine = false;
+      } else if (c == ',') {
+        record.add(field.toString());
+        field.setLength(0);
+        blankLine = false;
+      } else if (c == '\n' || c == '\r') {
+        if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+          i++;
+        }
+        if (!blankLine) {
+          record.add(field.toString());
+          records.add(record);
+        }
+        record = new ArrayList<>();
+        field.setLength(0);
+        blankLine = true;
+      } else {
+        field.append(c);
+        blankLine = false;
+      }
+    }
+    if (quoted) {
+      throw new BadRequestException("CSV has a quoted field that is never closed");
+    }
+    if (!blankLine) {
+      record.add(field.toString());
+      records.add(record);
+    }
+    return records;
+  }
+}
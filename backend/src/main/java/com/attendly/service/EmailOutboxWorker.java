@@ -0,0 +1,192 @@
+package com.attendly.service;
+
+import com.attendly.repository.EmailOutboxRepository;
+import com.attendly.repository.EmailOutboxRepositoryCustom.ClaimedEmail;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Delivers queued email from the outbox on its own sender threads (a fixed pool, or a virtual
+ * thread per send when {@code spring.threads.virtual.enabled} is set), so no request thread or
+ * pooled database connection ever waits on the mail server. A drain starts as soon as a
+ * transaction that queued email commits, and a periodic poll picks up retries, rows queued by
+ * other instances and rows whose sender died mid-delivery.
+ *
+ * <p>Delivery is at least once: a send that outlives its lease may be repeated by another worker.
+ */
+@Component
+@Slf4j
+public class EmailOutboxWorker {
+
+  private final EmailOutboxRepository emailOutboxRepository;
+  private final EmailTransport emailTransport;
+  private final int senders;
+  private final int maxAttempts;
+  private final Duration lease;
+  private final Duration retryBackoff;
+  private final Duration retention;
+
+  // One drain at a time claims rows, at most `senders` of them per round
+  private final ExecutorService dispatcher;
+  private final ExecutorService senderPool;
+  private final AtomicBoolean draining = new AtomicBoolean();
+  // At most one drain waits in the dispatcher however many emails a transaction queued
+  private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+  public EmailOutboxWorker(
+      EmailOutboxRepository emailOutboxRepository,
+      EmailTransport emailTransport,
+      @Value("${email.outbox.senders:2}") int senders,
+      @Value("${email.outbox.max-attempts:5}") int maxAttempts,
+      @Value("${email.outbox.lease:5m}") Duration lease,
+      @Value("${email.outbox.retry-backoff:30s}") Duration retryBackoff,
+      @Value("${email.outbox.retention:7d}") Duration retention,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this.emailOutboxRepository = emailOutboxRepository;
+    this.emailTransport = emailTransport;
+    this.senders = senders;
+    this.maxAttempts = maxAttempts;
+    this.lease = lease;
+    this.retryBackoff = retryBackoff;
+    this.retention = retention;
+    if (virtualThreads) {
+      // Claiming `senders` rows per round still caps the sends in flight
+      this.dispatcher = Executors.newSingleThreadExecutor(virtual("email-outbox-dispatch-"));
+      this.senderPool = Executors.newThreadPerTaskExecutor(virtual("email-outbox-send-"));
+    } else {
+      this.dispatcher = Executors.newSingleThreadExecutor(threads("email-outbox-dispatch"));
+      this.senderPool = Executors.newFixedThreadPool(senders, threads("email-outbox-send"));
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEmailQueued(EmailQueuedEvent event) {
+    scheduleDrain();
+  }
+
+  // Hands off like onEmailQueued so the shared scheduler thread never waits on a send
+  @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:10000}")
+  public void poll() {
+    scheduleDrain();
+  }
+
+  @Scheduled(cron = "${email.outbox.purge-cron:0 30 3 * * *}")
+  public void purgeFinished() {
+    int deleted =
+        emailOutboxRepository.deleteFinishedBefore(LocalDateTime.now().minus(retention));
+    log.debug("Purged {} sent or failed emails from the outbox", deleted);
+  }
+
+  private void scheduleDrain() {
+    if (drainQueued.compareAndSet(false, true)) {
+      dispatcher.execute(
+          () -> {
+            drainQueued.set(false);
+            drain();
+          });
+    }
+  }
+
+  /** Claims and sends due rows, one pool-sized batch at a time, until none are left. */
+  void drain() {
+    if (!draining.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      List<ClaimedEmail> batch;
+      do {
+        batch = emailOutboxRepository.claimDue(senders, lease);
+        CompletableFuture.allOf(
+                batch.stream()
+                    .map(email -> CompletableFuture.runAsync(() -> deliver(email), senderPool))
+                    .toArray(CompletableFuture[]::new))
+            .join();
+      } while (!batch.isEmpty());
+    } catch (Exception e) {
+      // Rows claimed by a failed drain are retried once their lease expires
+      log.error("Email outbox drain failed", e);
+    } finally {
+      draining.set(false);
+    }
+  }
+
+  private void deliver(ClaimedEmail email) {
+    try {
+      emailTransport.send(email.recipient(), email.subject(), email.htmlBody());
+      if (emailOutboxRepository.markSent(email)) {
+        log.info("Email {} sent to {}", email.id(), email.recipient());
+      } else {
+        logLostClaim(email);
+      }
+    } catch (Exception e) {
+      String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+      if (email.attempts() >= maxAttempts) {
+        if (emailOutboxRepository.markFailed(email, error)) {
+          log.error(
+              "Giving up on email {} to {} after {} attempts",
+              email.id(),
+              email.recipient(),
+              email.attempts(),
+              e);
+        } else {
+          logLostClaim(email);
+        }
+      } else {
+        // 30s, 1m, 2m, 4m, ... with the default backoff
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(email.attempts() - 1, 10));
+        if (emailOutboxRepository.markRetry(email, LocalDateTime.now().plus(delay), error)) {
+          log.warn(
+              "Email {} to {} failed (attempt {}), retrying in {}: {}",
+              email.id(),
+              email.recipient(),
+              email.attempts(),
+              delay,
+              error);
+        } else {
+          logLostClaim(email);
+        }
+      }
+    }
+  }
+
+  // The send outlived its lease and another worker has claimed the row; that one reports back
+  private void logLostClaim(ClaimedEmail email) {
+    log.warn(
+        "Email {} to {} was claimed again after attempt {} outlived its lease",
+        email.id(),
+        email.recipient(),
+        email.attempts());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    dispatcher.shutdownNow();
+    senderPool.shutdown();
+  }
+
+  private static ThreadFactory virtual(String prefix) {
+    return Thread.ofVirtual().name(prefix, 1).factory();
+  }
+
+  private static ThreadFactory threads(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,4 @@
+package com.attendly.service;
+
+/** Published when an email is added to the outbox; delivery starts once the transaction commits. */
+public record EmailQueuedEvent(Long outboxId) {}
@@ -1,40 +1,65 @@
 package com.attendly.service;
 
+import com.attendly.entity.EmailOutbox;
+import com.attendly.repository.EmailOutboxRepository;
+import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Queues outgoing email in the outbox table. Rows are written in the caller's transaction, so an
+ * email goes out only if the change that triggered it commits, and {@link EmailOutboxWorker}
+ * delivers it afterwards without holding up the request.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-  private final GmailApiService gmailApiService;
+  private final EmailOutboxRepository emailOutboxRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
+  @Transactional
   public void sendOtpEmail(String to, String name, String otpCode, String purpose) {
     String subject = "Attendly - Your OTP Code";
     String htmlContent = formatOtpEmail(name, otpCode, purpose);
-    
-    try {
-      gmailApiService.sendEmail(to, subject, htmlContent);
-      log.info("✅ OTP email sent successfully to: {}", to);
-    } catch (Exception e) {
-      log.error("❌ Failed to send OTP email to: {}", to, e);
-      throw new RuntimeException("Failed to send OTP email: " + e.getMessage());
-    }
+    enqueue(to, subject, htmlContent);
   }
 
   /**
    * Generic send email helper (HTML)
    */
+  @Transactional
   public void sendEmail(String to, String subject, String htmlContent) {
-    try {
-      gmailApiService.sendEmail(to, subject, htmlContent);
-      log.info("✅ Email sent successfully to: {}", to);
-    } catch (Exception e) {
-      log.error("❌ Failed to send email to: {}", to, e);
-      throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
-    }
+    enqueue(to, subject, htmlContent);
+  }
+
+  /** Sends a new student their server-generated first-login password. */
+  @Transactional
+  public void sendWelcomeEmail(String to, String name, String initialPassword) {
+    String subject = "Welcome to Attendly — your initial login details";
+    String html = String.format(
+        "<p>Hello %s,</p><p>Your account has been created. Use the following temporary password for first login:</p><p><strong>%s</strong></p><p>On first login you will be prompted to set your own password.</p>",
+        name, initialPassword);
+    enqueue(to, subject, html);
+  }
+
+  private void enqueue(String to, String subject, String htmlContent) {
+    EmailOutbox email =
+        emailOutboxRepository.save(
+            EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .htmlBody(htmlContent)
+                .status(EmailOutbox.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    eventPublisher.publishEvent(new EmailQueuedEvent(email.getId()));
+    log.debug("Queued email {} to {}: {}", email.getId(), to, subject);
   }
 
   private String formatOtpEmail(String name, String otpCode, String purpose) {
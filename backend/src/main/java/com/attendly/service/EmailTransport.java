@@ -0,0 +1,11 @@
+package com.attendly.service;
+
+/**
+ * Delivers one email over the network. Only {@link EmailOutboxWorker} calls this; everything else
+ * queues mail through {@link EmailService}. Selected with {@code email.transport}.
+ */
+public interface EmailTransport {
+
+  /** Sends the email, throwing if it was not accepted. */
+  void send(String to, String subject, String htmlBody) throws Exception;
+}
@@ -1,14 +1,18 @@
 package com.attendly.service;
 
-import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.TokenResponse;
+import com.google.api.client.googleapis.apache.v2.GoogleApacheHttpTransport;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.gmail.Gmail;
 import com.google.api.services.gmail.model.Message;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Base64;
 import java.util.Properties;
 import javax.mail.Session;
@@ -16,57 +20,87 @@ import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+/**
+ * Sends email through the Gmail API. One pooled HTTP transport, credential and client are built at
+ * startup and shared by every send, so sends reuse open connections and the access token; the
+ * credential only goes back to the token endpoint when the token is missing or about to expire.
+ *
+ * <p>Exports {@code gmail.send} and {@code gmail.token.refresh} timers tagged with the outcome.
+ */
 @Service
+@ConditionalOnProperty(name = "email.transport", havingValue = "gmail", matchIfMissing = true)
 @Slf4j
-public class GmailApiService {
+public class GmailApiService implements EmailTransport {
 
   private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
   private static final String APPLICATION_NAME = "Attendly";
 
-  @Value("${spring.gmail.oauth.client-id}")
-  private String clientId;
+  private final String userEmail;
+  private final HttpTransport httpTransport;
+  private final Gmail gmail;
+  private final MeterRegistry meterRegistry;
 
-  @Value("${spring.gmail.oauth.client-secret}")
-  private String clientSecret;
+  public GmailApiService(
+      @Value("${spring.gmail.oauth.client-id}") String clientId,
+      @Value("${spring.gmail.oauth.client-secret}") String clientSecret,
+      @Value("${spring.gmail.oauth.refresh-token}") String refreshToken,
+      @Value("${spring.gmail.oauth.token-url}") String tokenUrl,
+      @Value("${spring.gmail.api.root-url}") String rootUrl,
+      @Value("${spring.gmail.user.email}") String userEmail,
+      MeterRegistry meterRegistry)
+      throws Exception {
+    this.userEmail = userEmail;
+    this.meterRegistry = meterRegistry;
+    this.httpTransport = GoogleApacheHttpTransport.newTrustedTransport();
 
-  @Value("${spring.gmail.oauth.refresh-token}")
-  private String refreshToken;
+    GoogleCredential.Builder builder =
+        new GoogleCredential.Builder()
+            .setTransport(httpTransport)
+            .setJsonFactory(JSON_FACTORY)
+            .setClientSecrets(clientId, clientSecret)
+            .setTokenServerEncodedUrl(tokenUrl);
+    GoogleCredential credential = new TimedCredential(builder).setRefreshToken(refreshToken);
 
-  @Value("${spring.gmail.user.email}")
-  private String userEmail;
+    this.gmail =
+        new Gmail.Builder(httpTransport, JSON_FACTORY, credential)
+            .setRootUrl(rootUrl)
+            .setApplicationName(APPLICATION_NAME)
+            .build();
+  }
 
-  public void sendEmail(String to, String subject, String htmlBody) {
+  @Override
+  public void send(String to, String subject, String htmlBody) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "failure";
     try {
-      Gmail service = getGmailService();
       MimeMessage mimeMessage = createMimeMessage(to, subject, htmlBody);
       Message message = createGmailMessage(mimeMessage);
-      
-      service.users().messages().send("me", message).execute();
+
+      gmail.users().messages().send("me", message).execute();
+      outcome = "success";
       log.info("✅ Email sent successfully via Gmail API to: {}", to);
-      
+
     } catch (Exception e) {
       log.error("❌ Failed to send email via Gmail API to: {}", to, e);
       throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+    } finally {
+      sample.stop(timer("gmail.send", "Gmail API send calls, token refresh included", outcome));
     }
   }
 
-  private Gmail getGmailService() throws Exception {
-    NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
-    
-    GoogleCredential credential = new GoogleCredential.Builder()
-        .setTransport(httpTransport)
-        .setJsonFactory(JSON_FACTORY)
-        .setClientSecrets(clientId, clientSecret)
-        .build()
-        .setRefreshToken(refreshToken);
-    
-    credential.refreshToken();
-
-    return new Gmail.Builder(httpTransport, JSON_FACTORY, credential)
-        .setApplicationName(APPLICATION_NAME)
-        .build();
+  @PreDestroy
+  void shutdown() throws IOException {
+    httpTransport.shutdown();
+  }
+
+  private Timer timer(String name, String description, String outcome) {
+    return Timer.builder(name)
+        .description(description)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
   }
 
   private MimeMessage createMimeMessage(String to, String subject, String htmlBody)
@@ -88,9 +122,32 @@ public class GmailApiService {
     emailContent.writeTo(buffer);
     byte[] bytes = buffer.toByteArray();
     String encodedEmail = Base64.getUrlEncoder().encodeToString(bytes);
-    
+
     Message message = new Message();
     message.setRaw(encodedEmail);
     return message;
   }
+
+  // The credential refreshes on its own before a request when the token expires within a minute;
+  // this only times those refreshes
+  private class TimedCredential extends GoogleCredential {
+
+    TimedCredential(GoogleCredential.Builder builder) {
+      super(builder);
+    }
+
+    @Override
+    protected TokenResponse executeRefreshToken() throws IOException {
+      Timer.Sample sample = Timer.start(meterRegistry);
+      String outcome = "failure";
+      try {
+        TokenResponse response = super.executeRefreshToken();
+        outcome = "success";
+        return response;
+      } finally {
+        sample.stop(timer("gmail.token.refresh", "OAuth access token refreshes", outcome));
+        log.debug("Gmail access token refresh: {}", outcome);
+      }
+    }
+  }
 }
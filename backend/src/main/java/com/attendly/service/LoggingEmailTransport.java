@@ -0,0 +1,21 @@
+package com.attendly.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in for Gmail in local development and load tests ({@code email.transport: log}): emails
+ * are written to the log instead of being sent, so OTPs and initial passwords can be read there.
+ */
+@Component
+@ConditionalOnProperty(name = "email.transport", havingValue = "log")
+@Slf4j
+public class LoggingEmailTransport implements EmailTransport {
+
+  @Override
+  public void send(String to, String subject, String htmlBody) {
+    log.info("Email to {} not sent (email.transport=log): {}", to, subject);
+    log.debug("Email body for {}:\n{}", to, htmlBody);
+  }
+}
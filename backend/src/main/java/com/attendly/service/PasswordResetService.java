@@ -6,9 +6,11 @@ import com.attendly.dto.ResetPasswordRequest;
 import com.attendly.entity.OtpVerification;
 import com.attendly.entity.Student;
 import com.attendly.entity.Teacher;
+import com.attendly.exception.BadRequestException;
 import com.attendly.exception.ResourceNotFoundException;
 import com.attendly.repository.StudentRepository;
 import com.attendly.repository.TeacherRepository;
+import com.attendly.security.UserDetailsCache;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,7 @@ public class PasswordResetService {
   private final PasswordEncoder passwordEncoder;
   private final StudentRepository studentRepository;
   private final TeacherRepository teacherRepository;
+  private final UserDetailsCache userDetailsCache;
 
   @Transactional
   public Map<String, String> requestPasswordReset(PasswordResetRequest request) {
@@ -53,7 +56,7 @@ public class PasswordResetService {
       phone = teacher.getPhone();
       userName = teacher.getName();
     } else {
-      throw new IllegalArgumentException("Invalid user type");
+      throw new BadRequestException("Invalid user type");
     }
 
     // Generate OTP
@@ -106,6 +109,7 @@ public class PasswordResetService {
       student.setPassword(passwordEncoder.encode(request.getNewPassword()));
       student.setFirstLogin(false);
       studentRepository.save(student);
+      userDetailsCache.invalidateAfterCommit(UserDetailsCache.STUDENT, student.getId());
     } else if ("TEACHER".equals(otp.getUserType())) {
       Teacher teacher =
           teacherRepository
@@ -113,6 +117,7 @@ public class PasswordResetService {
               .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
       teacher.setPassword(passwordEncoder.encode(request.getNewPassword()));
       teacherRepository.save(teacher);
+      userDetailsCache.invalidateAfterCommit(UserDetailsCache.TEACHER, teacher.getId());
     } else {
       throw new IllegalArgumentException("Invalid user type: " + otp.getUserType());
     }
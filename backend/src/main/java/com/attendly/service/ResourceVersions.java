@@ -0,0 +1,103 @@
+package com.attendly.service;
+
+import com.attendly.repository.ResourceVersionRepository;
+import com.attendly.repository.ResourceVersionRepository.Kind;
+import com.attendly.repository.ResourceVersionRepository.Versions;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Version numbers for the data behind the student portal, used to build strong ETags without
+ * loading or serializing the resource. Each student's attendance, each student's account (class,
+ * active flag) and each class's timetable has a version, and a global one moves every ETag at
+ * once. Checking an ETag costs a single primary-key query.
+ *
+ * <p>The versions are stored in the database, so all instances agree on them across restarts.
+ * Writers bump them in the transaction that changes the data; the new version becomes visible
+ * exactly when the new data does. Readers must take the ETag before reading the data, so a racing
+ * write can only cause an extra 200, never a 304 for stale content.
+ *
+ * <p>Timetable versions are the exception: they are bumped just after the change commits, and the
+ * in-memory timetable snapshots of every instance are checked against them (see {@link
+ * TimetableSnapshotService}). Versions come from one sequence, so a snapshot loaded after reading
+ * version {@code v} holds every change whose version is {@code v} or lower.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersions {
+
+  private final ResourceVersionRepository resourceVersionRepository;
+
+  /** ETag of the student's weekly timetable. */
+  public String timetableEtag(Long studentId, Long classId) {
+    Versions versions = resourceVersionRepository.find(studentId, classId);
+    return etag("timetable", studentId, 0L, classId, versions);
+  }
+
+  /**
+   * ETag of a view of the student's attendance. {@code kind} separates the views and carries
+   * anything else the body depends on, such as the date for today's attendance.
+   */
+  public String attendanceEtag(String kind, Long studentId, Long classId) {
+    Versions versions = resourceVersionRepository.find(studentId, classId);
+    return etag(kind, studentId, versions.attendance(), classId, versions);
+  }
+
+  /** Attendance of these students, or the counters and subjects shown with it, changed. */
+  public void bumpAttendance(Collection<Long> studentIds) {
+    resourceVersionRepository.bump(Kind.ATTENDANCE, studentIds);
+  }
+
+  /** The student changed class or was deactivated. */
+  public void bumpStudent(Long studentId) {
+    resourceVersionRepository.bump(Kind.ACCOUNT, List.of(studentId));
+  }
+
+  /** Version of the class's timetable and name, as recorded in its weekly snapshot. */
+  public long classVersion(Long classId) {
+    return resourceVersionRepository.findClass(classId);
+  }
+
+  /** Newest version of anything in the teacher's weekly timetable, including class names. */
+  public long teacherVersion(Long teacherId) {
+    return resourceVersionRepository.findTeacher(teacherId);
+  }
+
+  /**
+   * The class's timetable or name changed, and with it the timetables of {@code teacherIds}.
+   * Called after that change has committed, so it runs and commits in a transaction of its own.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void bumpTimetable(Long classId, Collection<Long> teacherIds) {
+    resourceVersionRepository.bump(Kind.CLASS, List.of(classId));
+    resourceVersionRepository.bump(Kind.TEACHER, teacherIds);
+  }
+
+  /** Something shown to every student changed, e.g. the counters were rebuilt. */
+  public void bumpAll() {
+    resourceVersionRepository.bump(Kind.ALL, List.of(0L));
+  }
+
+  private static String etag(
+      String kind, Long studentId, long attendanceVersion, Long classId, Versions versions) {
+    return "\""
+        + kind
+        + "-s"
+        + studentId
+        + "."
+        + versions.account()
+        + "."
+        + attendanceVersion
+        + "-c"
+        + classId
+        + "."
+        + versions.timetable()
+        + "-"
+        + versions.all()
+        + "\"";
+  }
+}
@@ -0,0 +1,376 @@
+package com.attendly.service;
+
+import com.attendly.dto.StudentImportEvent;
+import com.attendly.dto.StudentRequest;
+import com.attendly.entity.Class;
+import com.attendly.entity.Student;
+import com.attendly.exception.BadRequestException;
+import com.attendly.exception.PasswordHashingBusyException;
+import com.attendly.repository.ClassRepository;
+import com.attendly.repository.StudentRepository;
+import com.attendly.security.BoundedPasswordEncoder;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports a batch of students from JSON or CSV. Every row is validated up front with a fixed
+ * number of set-based queries, then valid rows are saved in chunks: passwords are hashed in
+ * parallel on the password hashing pool, each chunk is inserted as one JDBC batch and its welcome
+ * emails are queued in the same transaction. Invalid rows are reported and skipped; the rest
+ * still import.
+ */
+@Service
+@Slf4j
+public class StudentImportService {
+
+  /** Columns a CSV import may use, matched case-insensitively against the header row. */
+  public static final List<String> CSV_COLUMNS =
+      List.of(
+          "name",
+          "email",
+          "password",
+          "phone",
+          "rollNumber",
+          "registrationNumber",
+          "classId",
+          "departmentId");
+
+  // Keeps IN lists well below PostgreSQL's bind parameter limit
+  private static final int LOOKUP_CHUNK = 1000;
+
+  private final StudentRepository studentRepository;
+  private final ClassRepository classRepository;
+  private final BoundedPasswordEncoder passwordEncoder;
+  private final EmailService emailService;
+  private final Validator validator;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+
+  public StudentImportService(
+      StudentRepository studentRepository,
+      ClassRepository classRepository,
+      BoundedPasswordEncoder passwordEncoder,
+      EmailService emailService,
+      Validator validator,
+      PlatformTransactionManager transactionManager,
+      @Value("${students.import.batch-size:200}") int batchSize) {
+    this.studentRepository = studentRepository;
+    this.classRepository = classRepository;
+    this.passwordEncoder = passwordEncoder;
+    this.emailService = emailService;
+    this.validator = validator;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+  }
+
+  /** One input row: either a parsed request or the reason it could not be parsed. */
+  public record ImportRow(int row, StudentRequest request, String error) {}
+
+  public List<ImportRow> fromJson(List<StudentRequest> requests) {
+    List<ImportRow> rows = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      StudentRequest request = requests.get(i);
+      rows.add(
+          request != null
+              ? new ImportRow(i + 1, request, null)
+              : new ImportRow(i + 1, null, "Row is empty"));
+    }
+    return rows;
+  }
+
+  /**
+   * Parses CSV with a header row naming the {@link #CSV_COLUMNS} in any order. Quoted fields may
+   * contain commas, doubled quotes and line breaks; blank lines are skipped.
+   */
+  public List<ImportRow> parseCsv(String csv) {
+    List<List<String>> records = CsvRecords.parse(csv);
+    if (records.isEmpty()) {
+      throw new BadRequestException("CSV is empty");
+    }
+
+    Map<String, String> known =
+        CSV_COLUMNS.stream()
+            .collect(Collectors.toMap(column -> column.toLowerCase(Locale.ROOT), c -> c));
+    List<String> header = new ArrayList<>();
+    for (String name : records.get(0)) {
+      String column = known.get(name.trim().toLowerCase(Locale.ROOT));
+      if (column == null) {
+        throw new BadRequestException(
+            "Unknown CSV column: " + name + " (expected " + String.join(", ", CSV_COLUMNS) + ")");
+      }
+      header.add(column);
+    }
+
+    List<ImportRow> rows = new ArrayList<>(records.size() - 1);
+    for (int i = 1; i < records.size(); i++) {
+      List<String> fields = records.get(i);
+      if (fields.size() != header.size()) {
+        rows.add(
+            new ImportRow(
+                i, null, "Expected " + header.size() + " fields but found " + fields.size()));
+        continue;
+      }
+      Map<String, String> values = new HashMap<>();
+      for (int c = 0; c < header.size(); c++) {
+        String value = fields.get(c).trim();
+        values.put(header.get(c), value.isEmpty() ? null : value);
+      }
+      try {
+        rows.add(
+            new ImportRow(
+                i,
+                new StudentRequest(
+                    values.get("name"),
+                    values.get("email"),
+                    values.get("password"),
+                    values.get("phone"),
+                    values.get("rollNumber"),
+                    values.get("registrationNumber"),
+                    parseId(values.get("classId"), "classId"),
+                    parseId(values.get("departmentId"), "departmentId")),
+                null));
+      } catch (BadRequestException e) {
+        rows.add(new ImportRow(i, null, e.getMessage()));
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Validates and saves the rows, reporting rejected rows, progress after each saved chunk and a
+   * final summary to {@code listener}. Chunks saved before a failure stay saved.
+   */
+  public void importRows(
+      List<ImportRow> rows, Long adminId, Consumer<StudentImportEvent> listener) {
+    int total = rows.size();
+    // Sorted, so errors are reported in input order whichever check found them
+    Map<Integer, String> errors = new TreeMap<>();
+    List<ImportRow> valid = validate(rows, adminId, errors);
+    errors.forEach((row, message) -> listener.accept(StudentImportEvent.error(row, message)));
+
+    int processed = errors.size();
+    int created = 0;
+    listener.accept(StudentImportEvent.progress(processed, total));
+
+    for (int from = 0; from < valid.size(); from += batchSize) {
+      List<ImportRow> chunk = valid.subList(from, Math.min(from + batchSize, valid.size()));
+      try {
+        saveChunk(chunk, adminId);
+        created += chunk.size();
+      } catch (DataIntegrityViolationException e) {
+        // Most likely a student with the same email or number was created concurrently. The
+        // database's message names constraints and key values, so it stays in the log
+        log.warn("Student import chunk failed", e);
+        rejectChunk(
+            chunk,
+            "conflicts with an existing student (email, roll number or registration number)",
+            listener);
+      } catch (DataAccessException e) {
+        log.warn("Student import chunk failed", e);
+        rejectChunk(chunk, "database error, please try again", listener);
+      } catch (IllegalStateException | PasswordHashingBusyException e) {
+        // Hashing the chunk's passwords failed or was interrupted; nothing of it was saved
+        log.warn("Student import chunk failed", e);
+        rejectChunk(chunk, e.getMessage(), listener);
+      }
+      processed += chunk.size();
+      listener.accept(StudentImportEvent.progress(processed, total));
+    }
+
+    log.info("Imported {} of {} students for admin {}", created, total, adminId);
+    listener.accept(StudentImportEvent.summary(total, created, total - created));
+  }
+
+  private List<ImportRow> validate(
+      List<ImportRow> rows, Long adminId, Map<Integer, String> errors) {
+    List<ImportRow> candidates = new ArrayList<>();
+    for (ImportRow row : rows) {
+      if (row.error() != null) {
+        errors.put(row.row(), row.error());
+        continue;
+      }
+      Set<ConstraintViolation<StudentRequest>> violations = validator.validate(row.request());
+      if (!violations.isEmpty()) {
+        errors.put(
+            row.row(),
+            violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        continue;
+      }
+      StudentRequest request = row.request();
+      // Blank and missing registration numbers are the same thing: none
+      if (request.getRegistrationNumber() != null && request.getRegistrationNumber().isEmpty()) {
+        request.setRegistrationNumber(null);
+      }
+      candidates.add(row);
+    }
+
+    // The same value twice in one file: the first row wins
+    rejectRepeats(candidates, StudentRequest::getEmail, "email", errors);
+    rejectRepeats(candidates, StudentRequest::getRollNumber, "roll number", errors);
+    rejectRepeats(candidates, StudentRequest::getRegistrationNumber, "registration number", errors);
+    candidates.removeIf(row -> errors.containsKey(row.row()));
+
+    Set<Long> ownedClassIds =
+        classRepository
+            .findAllById(
+                candidates.stream().map(row -> row.request().getClassId()).distinct().toList())
+            .stream()
+            .filter(found -> adminId.equals(found.getAdminId()))
+            .map(Class::getId)
+            .collect(Collectors.toSet());
+    Set<String> takenEmails =
+        existing(candidates, StudentRequest::getEmail, studentRepository::findExistingEmails);
+    Set<String> takenRollNumbers =
+        existing(
+            candidates, StudentRequest::getRollNumber, studentRepository::findExistingRollNumbers);
+    Set<String> takenRegistrationNumbers =
+        existing(
+            candidates,
+            StudentRequest::getRegistrationNumber,
+            studentRepository::findExistingRegistrationNumbers);
+
+    List<ImportRow> valid = new ArrayList<>(candidates.size());
+    for (ImportRow row : candidates) {
+      StudentRequest request = row.request();
+      String error = null;
+      if (takenEmails.contains(request.getEmail())) {
+        error = "Student with email " + request.getEmail() + " already exists";
+      } else if (takenRollNumbers.contains(request.getRollNumber())) {
+        error = "Student with roll number " + request.getRollNumber() + " already exists";
+      } else if (request.getRegistrationNumber() != null
+          && takenRegistrationNumbers.contains(request.getRegistrationNumber())) {
+        error =
+            "Student with registration number "
+                + request.getRegistrationNumber()
+                + " already exists";
+      } else if (!ownedClassIds.contains(request.getClassId())) {
+        error = "Class not found with id: " + request.getClassId();
+      }
+      if (error != null) {
+        errors.put(row.row(), error);
+      } else {
+        valid.add(row);
+      }
+    }
+    return valid;
+  }
+
+  private void saveChunk(List<ImportRow> chunk, Long adminId) {
+    // Hash outside the transaction so no connection is held while BCrypt runs
+    List<String> passwords = new ArrayList<>(chunk.size());
+    List<Boolean> generated = new ArrayList<>(chunk.size());
+    for (ImportRow row : chunk) {
+      String password = row.request().getPassword();
+      boolean generate = password == null || password.isEmpty();
+      passwords.add(generate ? StudentService.generateSecurePassword(10) : password);
+      generated.add(generate);
+    }
+    List<String> hashes = passwordEncoder.encodeAll(passwords);
+
+    List<Student> students = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      StudentRequest request = chunk.get(i).request();
+      students.add(
+          Student.builder()
+              .name(request.getName())
+              .email(request.getEmail())
+              .password(hashes.get(i))
+              .phone(request.getPhone())
+              .rollNumber(request.getRollNumber())
+              .registrationNumber(request.getRegistrationNumber())
+              .classId(request.getClassId())
+              .departmentId(request.getDepartmentId())
+              .adminId(adminId)
+              .isActive(true)
+              .phoneVerified(false)
+              .firstLogin(true)
+              .build());
+    }
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          studentRepository.insertAll(students);
+          for (int i = 0; i < students.size(); i++) {
+            if (generated.get(i)) {
+              Student student = students.get(i);
+              emailService.sendWelcomeEmail(
+                  student.getEmail(), student.getName(), passwords.get(i));
+            }
+          }
+        });
+  }
+
+  private static void rejectChunk(
+      List<ImportRow> chunk, String reason, Consumer<StudentImportEvent> listener) {
+    String message = "Could not be saved: " + reason;
+    for (ImportRow row : chunk) {
+      listener.accept(StudentImportEvent.error(row.row(), message));
+    }
+  }
+
+  private static void rejectRepeats(
+      List<ImportRow> rows,
+      Function<StudentRequest, String> key,
+      String label,
+      Map<Integer, String> errors) {
+    Map<String, Integer> firstRow = new HashMap<>();
+    for (ImportRow row : rows) {
+      String value = key.apply(row.request());
+      if (value == null || errors.containsKey(row.row())) {
+        continue;
+      }
+      Integer first = firstRow.putIfAbsent(value, row.row());
+      if (first != null) {
+        errors.put(row.row(), "Duplicate " + label + " " + value + " (same as row " + first + ")");
+      }
+    }
+  }
+
+  private static Set<String> existing(
+      List<ImportRow> rows,
+      Function<StudentRequest, String> key,
+      Function<Collection<String>, List<String>> lookup) {
+    List<String> values =
+        rows.stream().map(row -> key.apply(row.request())).filter(Objects::nonNull).toList();
+    Set<String> found = new HashSet<>();
+    for (int from = 0; from < values.size(); from += LOOKUP_CHUNK) {
+      int to = Math.min(from + LOOKUP_CHUNK, values.size());
+      found.addAll(lookup.apply(values.subList(from, to)));
+    }
+    return found;
+  }
+
+  private static Long parseId(String value, String column) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Long.valueOf(value);
+    } catch (NumberFormatException e) {
+      throw new BadRequestException(column + " must be a number: " + value);
+    }
+  }
+}
@@ -6,7 +6,9 @@ import com.attendly.exception.ResourceAlreadyExistsException;
 import com.attendly.exception.ResourceNotFoundException;
 import com.attendly.repository.ClassRepository;
 import com.attendly.repository.StudentRepository;
+import com.attendly.security.UserDetailsCache;
 import java.util.List;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,8 @@ public class StudentService {
   private final ClassRepository classRepository;
   private final PasswordEncoder passwordEncoder;
   private final EmailService emailService;
+  private final UserDetailsCache userDetailsCache;
+  private final ResourceVersions resourceVersions;
 
   @Transactional
   public Student createStudent(StudentRequest request, Long adminId) {
@@ -83,17 +87,13 @@ public class StudentService {
 
     // Email initial password to student if it was generated by the server
     if (generated) {
-      String subject = "Welcome to Attendly — your initial login details";
-      String html = String.format(
-          "<p>Hello %s,</p><p>Your account has been created. Use the following temporary password for first login:</p><p><strong>%s</strong></p><p>On first login you will be prompted to set your own password.</p>",
-          saved.getName(), initialPassword);
-      emailService.sendEmail(saved.getEmail(), subject, html);
+      emailService.sendWelcomeEmail(saved.getEmail(), saved.getName(), initialPassword);
     }
 
     return saved;
   }
 
-  private String generateSecurePassword(int length) {
+  static String generateSecurePassword(int length) {
     SecureRandom rnd = new SecureRandom();
     byte[] bytes = new byte[length * 2];
     rnd.nextBytes(bytes);
@@ -162,9 +162,16 @@ public class StudentService {
                       "Class not found with id: " + request.getClassId()));
     }
 
+    boolean passwordChanged = request.getPassword() != null && !request.getPassword().isEmpty();
+    // Existing tokens stay valid unless the login or the class in their claims changes
+    boolean revokeTokens =
+        passwordChanged
+            || !Objects.equals(student.getEmail(), request.getEmail())
+            || !Objects.equals(student.getClassId(), request.getClassId());
+
     student.setName(request.getName());
     student.setEmail(request.getEmail());
-    if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+    if (passwordChanged) {
       student.setPassword(passwordEncoder.encode(request.getPassword()));
     }
     student.setPhone(request.getPhone());
@@ -173,7 +180,14 @@ public class StudentService {
     student.setClassId(request.getClassId());
     student.setDepartmentId(request.getDepartmentId());
 
-    return studentRepository.save(student);
+    student = studentRepository.save(student);
+    if (revokeTokens) {
+      userDetailsCache.invalidateAfterCommit(UserDetailsCache.STUDENT, id);
+    } else {
+      userDetailsCache.evictAfterCommit(UserDetailsCache.STUDENT, id);
+    }
+    resourceVersions.bumpStudent(id);
+    return student;
   }
 
   @Transactional
@@ -181,6 +195,8 @@ public class StudentService {
     Student student = getStudentById(id, adminId);
     student.setIsActive(false);
     studentRepository.save(student);
+    userDetailsCache.invalidateAfterCommit(UserDetailsCache.STUDENT, id);
+    resourceVersions.bumpStudent(id);
   }
 
   public List<Student> searchStudents(String query, Long classId) {
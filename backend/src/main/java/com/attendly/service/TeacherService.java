@@ -6,7 +6,9 @@ import com.attendly.exception.ResourceAlreadyExistsException;
 import com.attendly.exception.ResourceNotFoundException;
 import com.attendly.repository.DepartmentRepository;
 import com.attendly.repository.TeacherRepository;
+import com.attendly.security.UserDetailsCache;
 import java.util.List;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,8 @@ public class TeacherService {
   private final DepartmentRepository departmentRepository;
   private final PasswordEncoder passwordEncoder;
   private final EmailService emailService;
+  private final UserDetailsCache userDetailsCache;
+  private final ResourceVersions resourceVersions;
 
   @Transactional
   public Teacher createTeacher(TeacherRequest request, Long adminId) {
@@ -126,15 +130,31 @@ public class TeacherService {
                       "Department not found with id: " + request.getDepartmentId()));
     }
 
+    boolean passwordChanged = request.getPassword() != null && !request.getPassword().isEmpty();
+    boolean nameChanged = !Objects.equals(teacher.getName(), request.getName());
+    // Existing tokens stay valid unless the login changes
+    boolean revokeTokens =
+        passwordChanged || !Objects.equals(teacher.getEmail(), request.getEmail());
+
     teacher.setName(request.getName());
     teacher.setEmail(request.getEmail());
-    if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+    if (passwordChanged) {
       teacher.setPassword(passwordEncoder.encode(request.getPassword()));
     }
     teacher.setPhone(request.getPhone());
     teacher.setDepartmentId(request.getDepartmentId());
 
-    return teacherRepository.save(teacher);
+    teacher = teacherRepository.save(teacher);
+    if (revokeTokens) {
+      userDetailsCache.invalidateAfterCommit(UserDetailsCache.TEACHER, id);
+    } else {
+      userDetailsCache.evictAfterCommit(UserDetailsCache.TEACHER, id);
+    }
+    if (nameChanged) {
+      // Students see who marked each of their attendance rows
+      resourceVersions.bumpAll();
+    }
+    return teacher;
   }
 
   @Transactional
@@ -142,6 +162,7 @@ public class TeacherService {
     Teacher teacher = getTeacherById(id, adminId);
     teacher.setIsActive(false);
     teacherRepository.save(teacher);
+    userDetailsCache.invalidateAfterCommit(UserDetailsCache.TEACHER, id);
   }
 
   public List<Teacher> searchTeachers(String query, Long adminId) {
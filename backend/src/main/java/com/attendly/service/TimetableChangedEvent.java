@@ -0,0 +1,9 @@
+package com.attendly.service;
+
+import java.util.Set;
+
+/**
+ * Published when a class's timetable or name changes. {@code teacherIds} lists teachers who gained
+ * or lost a slot; teachers already teaching the class see it through the class's version.
+ */
+public record TimetableChangedEvent(Long classId, Set<Long> teacherIds) {}
@@ -4,13 +4,16 @@ import com.attendly.dto.TimetableSlotRequest;
 import com.attendly.dto.TimetableSlotResponse;
 import com.attendly.entity.Teacher;
 import com.attendly.entity.TimetableSlot;
+import com.attendly.exception.BadRequestException;
 import com.attendly.exception.ResourceNotFoundException;
 import com.attendly.repository.ClassRepository;
 import com.attendly.repository.TeacherRepository;
 import com.attendly.repository.TimetableSlotRepository;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +24,8 @@ public class TimetableService {
   private final TimetableSlotRepository timetableSlotRepository;
   private final ClassRepository classRepository;
   private final TeacherRepository teacherRepository;
+  private final AttendanceSummaryService attendanceSummaryService;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional
   public TimetableSlotResponse createSlot(TimetableSlotRequest request, Long adminId) {
@@ -43,7 +48,7 @@ public class TimetableService {
     // Validate time
     if (request.getEndTime().isBefore(request.getStartTime())
         || request.getEndTime().equals(request.getStartTime())) {
-      throw new IllegalArgumentException("End time must be after start time");
+      throw new BadRequestException("End time must be after start time");
     }
 
     // Check for overlapping slots
@@ -54,7 +59,7 @@ public class TimetableService {
     for (TimetableSlot slot : existingSlots) {
       if (hasTimeOverlap(
           request.getStartTime(), request.getEndTime(), slot.getStartTime(), slot.getEndTime())) {
-        throw new IllegalArgumentException(
+        throw new BadRequestException(
             "Time slot overlaps with existing slot: "
                 + slot.getSubject()
                 + " ("
@@ -80,6 +85,8 @@ public class TimetableService {
             .build();
 
     TimetableSlot savedSlot = timetableSlotRepository.save(slot);
+    eventPublisher.publishEvent(
+        new TimetableChangedEvent(savedSlot.getClassId(), Set.of(savedSlot.getTeacherId())));
     return mapToResponse(savedSlot);
   }
 
@@ -90,7 +97,7 @@ public class TimetableService {
         .orElseThrow(() -> new ResourceNotFoundException("Class not found with id: " + classId));
 
     return timetableSlotRepository.findByClassIdAndIsActiveTrue(classId).stream()
-        .map(this::mapToResponse)
+        .map(TimetableService::mapToResponse)
         .collect(Collectors.toList());
   }
 
@@ -104,7 +111,7 @@ public class TimetableService {
     return timetableSlotRepository
         .findByClassIdAndDayOfWeekAndIsActiveTrue(classId, dayOfWeek)
         .stream()
-        .map(this::mapToResponse)
+        .map(TimetableService::mapToResponse)
         .collect(Collectors.toList());
   }
 
@@ -112,7 +119,7 @@ public class TimetableService {
   public TimetableSlotResponse updateSlot(Long id, TimetableSlotRequest request, Long adminId) {
     TimetableSlot slot =
         timetableSlotRepository
-            .findById(id)
+            .findByIdForUpdate(id)
             .orElseThrow(
                 () -> new ResourceNotFoundException("Timetable slot not found with id: " + id));
 
@@ -124,7 +131,7 @@ public class TimetableService {
     // Validate time
     if (request.getEndTime().isBefore(request.getStartTime())
         || request.getEndTime().equals(request.getStartTime())) {
-      throw new IllegalArgumentException("End time must be after start time");
+      throw new BadRequestException("End time must be after start time");
     }
 
     // Check for overlapping slots (excluding current slot)
@@ -139,7 +146,7 @@ public class TimetableService {
               request.getEndTime(),
               existingSlot.getStartTime(),
               existingSlot.getEndTime())) {
-        throw new IllegalArgumentException(
+        throw new BadRequestException(
             "Time slot overlaps with existing slot: "
                 + existingSlot.getSubject()
                 + " ("
@@ -159,6 +166,11 @@ public class TimetableService {
                     new ResourceNotFoundException(
                         "Teacher not found with id: " + request.getTeacherId()));
 
+    String oldSubject = slot.getSubject();
+    boolean subjectRenamed = !oldSubject.equals(request.getSubject());
+    Set<Long> affectedTeachers =
+        Set.copyOf(List.of(slot.getTeacherId(), request.getTeacherId()));
+
     slot.setSubject(request.getSubject());
     slot.setTeacherId(request.getTeacherId());
     slot.setTeacherName(teacher.getName());
@@ -169,6 +181,14 @@ public class TimetableService {
     slot.setNotes(request.getNotes());
 
     TimetableSlot updatedSlot = timetableSlotRepository.save(slot);
+
+    // Attendance counters are keyed by subject, so move this slot's history to the new name
+    if (subjectRenamed) {
+      timetableSlotRepository.flush();
+      attendanceSummaryService.recountRenamedSlot(slot.getId(), oldSubject, slot.getSubject());
+    }
+
+    eventPublisher.publishEvent(new TimetableChangedEvent(slot.getClassId(), affectedTeachers));
     return mapToResponse(updatedSlot);
   }
 
@@ -188,24 +208,11 @@ public class TimetableService {
     // Soft delete
     slot.setIsActive(false);
     timetableSlotRepository.save(slot);
+    eventPublisher.publishEvent(
+        new TimetableChangedEvent(slot.getClassId(), Set.of(slot.getTeacherId())));
   }
 
-  // Student-facing methods (no admin check needed)
-  public List<TimetableSlotResponse> getStudentTimetable(Long classId) {
-    return timetableSlotRepository.findByClassIdAndIsActiveTrue(classId).stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
-  }
-
-  public List<TimetableSlotResponse> getStudentTimetableByDay(Long classId, String dayOfWeek) {
-    return timetableSlotRepository
-        .findByClassIdAndDayOfWeekAndIsActiveTrue(classId, dayOfWeek)
-        .stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
-  }
-
-  private boolean hasTimeOverlap(
+  static boolean hasTimeOverlap(
       java.time.LocalTime start1,
       java.time.LocalTime end1,
       java.time.LocalTime start2,
@@ -213,7 +220,7 @@ public class TimetableService {
     return start1.isBefore(end2) && end1.isAfter(start2);
   }
 
-  private TimetableSlotResponse mapToResponse(TimetableSlot slot) {
+  static TimetableSlotResponse mapToResponse(TimetableSlot slot) {
     return TimetableSlotResponse.builder()
         .id(slot.getId())
         .classId(slot.getClassId())
@@ -0,0 +1,188 @@
+package com.attendly.service;
+
+import com.attendly.dto.TeacherTimetableSlotResponse;
+import com.attendly.dto.TimetableSlotResponse;
+import com.attendly.entity.Class;
+import com.attendly.entity.TimetableSlot;
+import com.attendly.repository.ClassRepository;
+import com.attendly.repository.TimetableSlotRepository;
+import java.time.DayOfWeek;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory weekly timetables per class (student portal) and per teacher (teacher portal).
+ * Snapshots are loaded on first use and replaced whole, so readers always see either the old or
+ * the new week, never a mix.
+ *
+ * <p>Each read checks the snapshot against the class's or teacher's version in {@link
+ * ResourceVersions}, one small query, and reloads it when the database has a newer one. A {@link
+ * TimetableChangedEvent} bumps those versions once it commits, so a change made through any
+ * instance reaches the snapshots of all of them; this instance also rebuilds its own right away.
+ *
+ * <p>Snapshots are loaded outside the map's locks, so a load waiting on a database connection
+ * never pins a virtual thread; readers of a snapshot being built wait on its future.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimetableSnapshotService {
+
+  private static final Comparator<TimetableSlot> WEEK_ORDER =
+      Comparator.comparingInt((TimetableSlot slot) -> dayIndex(slot.getDayOfWeek()))
+          .thenComparing(TimetableSlot::getStartTime);
+
+  private final TimetableSlotRepository timetableSlotRepository;
+  private final ClassRepository classRepository;
+  private final ResourceVersions resourceVersions;
+
+  private final Map<Long, CompletableFuture<WeeklyTimetable<TimetableSlotResponse>>> byClass =
+      new ConcurrentHashMap<>();
+  private final Map<Long, CompletableFuture<WeeklyTimetable<TeacherTimetableSlotResponse>>>
+      byTeacher = new ConcurrentHashMap<>();
+
+  // Boot epoch plus a build counter: ETags never repeat across rebuilds or restarts
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong generation = new AtomicLong();
+
+  public WeeklyTimetable<TimetableSlotResponse> forClass(Long classId) {
+    return get(byClass, classId, resourceVersions.classVersion(classId), this::loadClass);
+  }
+
+  public WeeklyTimetable<TeacherTimetableSlotResponse> forTeacher(Long teacherId) {
+    return get(byTeacher, teacherId, resourceVersions.teacherVersion(teacherId), this::loadTeacher);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTimetableChanged(TimetableChangedEvent event) {
+    // Teachers already teaching the class pick up the new class version, e.g. for a new name
+    resourceVersions.bumpTimetable(event.classId(), event.teacherIds());
+    rebuild(
+        byClass, event.classId(), resourceVersions.classVersion(event.classId()), this::loadClass);
+    for (Long teacherId : event.teacherIds()) {
+      rebuild(byTeacher, teacherId, resourceVersions.teacherVersion(teacherId), this::loadTeacher);
+    }
+    log.debug("Rebuilt timetable snapshots for class {}", event.classId());
+  }
+
+  // Callers read the version before the slots are loaded, so a snapshot's data is never older
+  // than its version
+  private static <T> WeeklyTimetable<T> get(
+      Map<Long, CompletableFuture<WeeklyTimetable<T>>> snapshots,
+      Long id,
+      long version,
+      BiFunction<Long, Long, WeeklyTimetable<T>> loader) {
+    while (true) {
+      CompletableFuture<WeeklyTimetable<T>> loading = new CompletableFuture<>();
+      CompletableFuture<WeeklyTimetable<T>> snapshot = snapshots.putIfAbsent(id, loading);
+      if (snapshot == null) {
+        return load(snapshots, id, loading, version, loader);
+      }
+      WeeklyTimetable<T> timetable;
+      try {
+        timetable = snapshot.join();
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException cause ? cause : e;
+      }
+      if (timetable.version() >= version) {
+        return timetable;
+      }
+      // Changed since it was loaded, possibly through another instance. One reader reloads it,
+      // the others wait on that load
+      if (snapshots.replace(id, snapshot, loading)) {
+        return load(snapshots, id, loading, version, loader);
+      }
+    }
+  }
+
+  // The new future replaces the old one before the load starts, so a later change always wins
+  private static <T> void rebuild(
+      Map<Long, CompletableFuture<WeeklyTimetable<T>>> snapshots,
+      Long id,
+      long version,
+      BiFunction<Long, Long, WeeklyTimetable<T>> loader) {
+    CompletableFuture<WeeklyTimetable<T>> loading = new CompletableFuture<>();
+    if (snapshots.computeIfPresent(id, (key, stale) -> loading) == loading) {
+      load(snapshots, id, loading, version, loader);
+    }
+  }
+
+  private static <T> WeeklyTimetable<T> load(
+      Map<Long, CompletableFuture<WeeklyTimetable<T>>> snapshots,
+      Long id,
+      CompletableFuture<WeeklyTimetable<T>> loading,
+      long version,
+      BiFunction<Long, Long, WeeklyTimetable<T>> loader) {
+    try {
+      WeeklyTimetable<T> snapshot = loader.apply(id, version);
+      loading.complete(snapshot);
+      return snapshot;
+    } catch (RuntimeException e) {
+      // The next reader tries again
+      snapshots.remove(id, loading);
+      loading.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private WeeklyTimetable<TimetableSlotResponse> loadClass(Long classId, Long version) {
+    List<TimetableSlotResponse> slots =
+        timetableSlotRepository.findByClassIdAndIsActiveTrue(classId).stream()
+            .sorted(WEEK_ORDER)
+            .map(TimetableService::mapToResponse)
+            .toList();
+    return WeeklyTimetable.of(
+        slots, TimetableSlotResponse::getDayOfWeek, nextEtag("c", classId), version);
+  }
+
+  private WeeklyTimetable<TeacherTimetableSlotResponse> loadTeacher(Long teacherId, Long version) {
+    List<TimetableSlot> slots = timetableSlotRepository.findByTeacherIdAndIsActiveTrue(teacherId);
+    Map<Long, String> classNames =
+        classRepository
+            .findAllById(slots.stream().map(TimetableSlot::getClassId).distinct().toList())
+            .stream()
+            .collect(Collectors.toMap(Class::getId, Class::getName));
+    List<TeacherTimetableSlotResponse> responses =
+        slots.stream()
+            .sorted(WEEK_ORDER)
+            .map(
+                slot ->
+                    new TeacherTimetableSlotResponse(
+                        slot.getId(),
+                        slot.getClassId(),
+                        classNames.getOrDefault(slot.getClassId(), "Class " + slot.getClassId()),
+                        slot.getSubject(),
+                        slot.getDayOfWeek(),
+                        slot.getStartTime(),
+                        slot.getEndTime(),
+                        slot.getRoom(),
+                        slot.getNotes()))
+            .toList();
+    return WeeklyTimetable.of(
+        responses, TeacherTimetableSlotResponse::dayOfWeek, nextEtag("t", teacherId), version);
+  }
+
+  private String nextEtag(String kind, Long id) {
+    return "\"" + kind + id + "-" + epoch + "-" + generation.incrementAndGet() + "\"";
+  }
+
+  // Unknown day names sort last rather than failing the whole timetable
+  private static int dayIndex(String dayOfWeek) {
+    try {
+      return DayOfWeek.valueOf(dayOfWeek.toUpperCase()).ordinal();
+    } catch (IllegalArgumentException e) {
+      return DayOfWeek.values().length;
+    }
+  }
+}
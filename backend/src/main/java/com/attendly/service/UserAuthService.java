@@ -10,10 +10,10 @@ import com.attendly.repository.TeacherRepository;
 import com.attendly.security.JwtService;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -24,7 +24,7 @@ public class UserAuthService {
   private final JwtService jwtService;
   private final PasswordEncoder passwordEncoder;
 
-  @Transactional(readOnly = true)
+  // Not transactional: a login waiting on BCrypt must not hold a pooled connection
   public AuthResponse studentLogin(LoginRequest request) {
     // Get student details
     Student student =
@@ -46,6 +46,12 @@ public class UserAuthService {
       throw new ResourceNotFoundException("Student account is inactive");
     }
 
+    rehashIfOutdated(
+        student.getPassword(),
+        request.getPassword(),
+        (oldPassword, newPassword) ->
+            studentRepository.updatePasswordIfUnchanged(student.getId(), oldPassword, newPassword));
+
     // Generate JWT token with extra claims
     Map<String, Object> claims = new HashMap<>();
     claims.put("userId", student.getId());
@@ -65,7 +71,6 @@ public class UserAuthService {
         jwtToken, student.getId(), student.getName(), student.getEmail(), "STUDENT");
   }
 
-  @Transactional(readOnly = true)
   public AuthResponse teacherLogin(LoginRequest request) {
     // Get teacher details
     Teacher teacher =
@@ -87,6 +92,12 @@ public class UserAuthService {
       throw new ResourceNotFoundException("Teacher account is inactive");
     }
 
+    rehashIfOutdated(
+        teacher.getPassword(),
+        request.getPassword(),
+        (oldPassword, newPassword) ->
+            teacherRepository.updatePasswordIfUnchanged(teacher.getId(), oldPassword, newPassword));
+
     // Generate JWT token with extra claims
     Map<String, Object> claims = new HashMap<>();
     claims.put("userId", teacher.getId());
@@ -104,4 +115,14 @@ public class UserAuthService {
     return new AuthResponse(
         jwtToken, teacher.getId(), teacher.getName(), teacher.getEmail(), "TEACHER");
   }
+
+  // Same password under the current cost factor; tokens and cached users stay valid. The entity
+  // was read before BCrypt ran, so saving it could undo an edit made meanwhile, e.g. a
+  // deactivation; only the password column is written, and only if it still holds the old hash
+  private void rehashIfOutdated(
+      String encoded, String rawPassword, BiConsumer<String, String> updatePassword) {
+    if (passwordEncoder.upgradeEncoding(encoded)) {
+      updatePassword.accept(encoded, passwordEncoder.encode(rawPassword));
+    }
+  }
 }
@@ -3,6 +3,7 @@ package com.attendly.service;
 import com.attendly.repository.AdminRepository;
 import com.attendly.repository.StudentRepository;
 import com.attendly.repository.TeacherRepository;
+import com.attendly.security.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -39,4 +40,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     throw new UsernameNotFoundException("User not found with email: " + username);
   }
+
+  // Single-table lookup for callers that already know the role and id, e.g. from token claims
+  public UserDetails loadUserById(String role, Long id) throws UsernameNotFoundException {
+    var user =
+        switch (role) {
+          case UserDetailsCache.ADMIN -> adminRepository.findById(id).map(UserDetails.class::cast);
+          case UserDetailsCache.STUDENT ->
+              studentRepository.findById(id).map(UserDetails.class::cast);
+          case UserDetailsCache.TEACHER ->
+              teacherRepository.findById(id).map(UserDetails.class::cast);
+          default -> throw new UsernameNotFoundException("Unknown role: " + role);
+        };
+    return user.orElseThrow(
+        () -> new UsernameNotFoundException("User not found with id: " + role + ":" + id));
+  }
 }
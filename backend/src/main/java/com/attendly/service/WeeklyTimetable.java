@@ -0,0 +1,28 @@
+package com.attendly.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable weekly timetable of one class or teacher, ordered by day and start time. The ETag
+ * changes every time the snapshot is rebuilt, so it can be compared without touching the slots.
+ * {@code version} is the {@link ResourceVersions} version read before the slots were loaded; a
+ * newer one in the database means the snapshot is stale.
+ */
+public record WeeklyTimetable<T>(
+    List<T> slots, Map<String, List<T>> byDay, String etag, long version) {
+
+  static <T> WeeklyTimetable<T> of(
+      List<T> slots, Function<T, String> dayOfWeek, String etag, long version) {
+    Map<String, List<T>> byDay =
+        slots.stream().collect(Collectors.groupingBy(dayOfWeek, Collectors.toUnmodifiableList()));
+    return new WeeklyTimetable<>(List.copyOf(slots), Map.copyOf(byDay), etag, version);
+  }
+
+  /** Slots on the given day, e.g. {@code MONDAY}. */
+  public List<T> forDay(String dayOfWeek) {
+    return byDay.getOrDefault(dayOfWeek, List.of());
+  }
+}
@@ -0,0 +1,182 @@
+-- Baseline schema for all entities in com.attendly.entity.
+--
+-- Databases that were previously managed by hibernate ddl-auto are baselined at version 0, so
+-- this script also runs against them. Every statement is therefore idempotent and only creates
+-- what is missing.
+
+CREATE TABLE IF NOT EXISTS admins (
+    id                      BIGSERIAL PRIMARY KEY,
+    name                    VARCHAR(100) NOT NULL,
+    email                   VARCHAR(100) NOT NULL UNIQUE,
+    password                VARCHAR(255) NOT NULL,
+    phone                   VARCHAR(20)  NOT NULL,
+    institution             VARCHAR(200) NOT NULL UNIQUE,
+    institution_address     VARCHAR(255),
+    institution_city        VARCHAR(100),
+    institution_state       VARCHAR(100),
+    institution_postal_code VARCHAR(10),
+    institution_phone       VARCHAR(20),
+    institution_email       VARCHAR(100),
+    role                    VARCHAR(255) NOT NULL CHECK (role IN ('ADMIN', 'SUPER_ADMIN')),
+    is_active               BOOLEAN      NOT NULL,
+    created_at              TIMESTAMP(6) NOT NULL,
+    updated_at              TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS departments (
+    id          BIGSERIAL PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    code        VARCHAR(10)  NOT NULL,
+    description VARCHAR(500),
+    admin_id    BIGINT       NOT NULL,
+    is_active   BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS classes (
+    id            BIGSERIAL PRIMARY KEY,
+    name          VARCHAR(100) NOT NULL,
+    semester      INTEGER      NOT NULL,
+    year          INTEGER      NOT NULL,
+    department_id BIGINT       NOT NULL,
+    admin_id      BIGINT       NOT NULL,
+    is_active     BOOLEAN      NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS teachers (
+    id            BIGSERIAL PRIMARY KEY,
+    name          VARCHAR(100) NOT NULL,
+    email         VARCHAR(100) NOT NULL UNIQUE,
+    password      VARCHAR(255) NOT NULL,
+    phone         VARCHAR(20),
+    first_login   BOOLEAN      NOT NULL,
+    department_id BIGINT       NOT NULL,
+    admin_id      BIGINT       NOT NULL,
+    is_active     BOOLEAN      NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS students (
+    id                  BIGSERIAL PRIMARY KEY,
+    name                VARCHAR(100) NOT NULL,
+    email               VARCHAR(100) NOT NULL UNIQUE,
+    password            VARCHAR(255) NOT NULL,
+    phone               VARCHAR(20),
+    roll_number         VARCHAR(50)  NOT NULL UNIQUE,
+    registration_number VARCHAR(50) UNIQUE,
+    phone_verified      BOOLEAN      NOT NULL,
+    first_login         BOOLEAN      NOT NULL,
+    class_id            BIGINT       NOT NULL,
+    department_id       BIGINT       NOT NULL,
+    admin_id            BIGINT       NOT NULL,
+    is_active           BOOLEAN      NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL,
+    updated_at          TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS timetable_slots (
+    id           BIGSERIAL PRIMARY KEY,
+    class_id     BIGINT       NOT NULL,
+    subject      VARCHAR(100) NOT NULL,
+    teacher_id   BIGINT       NOT NULL,
+    teacher_name VARCHAR(100),
+    day_of_week  VARCHAR(20)  NOT NULL,
+    start_time   TIME(6)      NOT NULL,
+    end_time     TIME(6)      NOT NULL,
+    room         VARCHAR(200),
+    notes        VARCHAR(500),
+    is_active    BOOLEAN      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS attendance (
+    id                BIGSERIAL PRIMARY KEY,
+    timetable_slot_id BIGINT       NOT NULL,
+    student_id        BIGINT       NOT NULL,
+    date              DATE         NOT NULL,
+    status            VARCHAR(20)  NOT NULL,
+    marked_by         BIGINT       NOT NULL,
+    remarks           VARCHAR(500),
+    created_at        TIMESTAMP(6) NOT NULL,
+    updated_at        TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS attendance_summary (
+    id              BIGSERIAL PRIMARY KEY,
+    student_id      BIGINT       NOT NULL,
+    subject         VARCHAR(100) NOT NULL,
+    total_classes   INTEGER      NOT NULL,
+    classes_present INTEGER      NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS otp_verifications (
+    id          BIGSERIAL PRIMARY KEY,
+    user_id     BIGINT       NOT NULL,
+    otp_code    VARCHAR(10)  NOT NULL,
+    user_type   VARCHAR(255) NOT NULL,
+    purpose     VARCHAR(255) NOT NULL,
+    verified    BOOLEAN      NOT NULL,
+    expiry_time TIMESTAMP(6) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+-- Older databases may hold duplicate marks from before the unique key existed. The migration
+-- refuses to pick a winner and stops, listing them. Once the rows have been reviewed, keeping the
+-- latest mark of each key is:
+--
+--   DELETE FROM attendance older
+--       USING attendance newer
+--       WHERE older.timetable_slot_id = newer.timetable_slot_id
+--         AND older.student_id = newer.student_id
+--         AND older.date = newer.date
+--         AND older.id < newer.id;
+DO $$
+DECLARE
+    duplicate_keys INTEGER;
+    examples       TEXT;
+BEGIN
+    SELECT COUNT(*),
+           string_agg(format('slot %s, student %s, date %s: ids %s',
+                             timetable_slot_id, student_id, date, ids), E'\n')
+               FILTER (WHERE rn <= 20)
+    INTO duplicate_keys, examples
+    FROM (SELECT timetable_slot_id, student_id, date,
+                 array_agg(id ORDER BY id) AS ids,
+                 row_number() OVER (ORDER BY timetable_slot_id, student_id, date) AS rn
+          FROM attendance
+          GROUP BY timetable_slot_id, student_id, date
+          HAVING COUNT(*) > 1) duplicates;
+
+    IF duplicate_keys > 0 THEN
+        RAISE EXCEPTION 'attendance has % (slot, student, date) keys with more than one row', duplicate_keys
+            USING DETAIL = 'First duplicates:' || E'\n' || examples,
+                  HINT = 'Keep one row per key (see the cleanup query in V1__baseline.sql), then rerun the migration.';
+    END IF;
+END
+$$;
+
+-- Upsert targets (INSERT ... ON CONFLICT)
+CREATE UNIQUE INDEX IF NOT EXISTS uk_attendance_slot_student_date
+    ON attendance (timetable_slot_id, student_id, date);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_attendance_summary_student_subject
+    ON attendance_summary (student_id, subject);
+
+-- Hot query paths
+CREATE INDEX IF NOT EXISTS idx_attendance_student_date
+    ON attendance (student_id, date);
+CREATE INDEX IF NOT EXISTS idx_attendance_slot_date
+    ON attendance (timetable_slot_id, date);
+CREATE INDEX IF NOT EXISTS idx_students_class_active_roll
+    ON students (class_id, is_active, roll_number);
+CREATE INDEX IF NOT EXISTS idx_students_admin_active
+    ON students (admin_id, is_active);
+CREATE INDEX IF NOT EXISTS idx_timetable_slots_class_day_active
+    ON timetable_slots (class_id, day_of_week, is_active);
+CREATE INDEX IF NOT EXISTS idx_timetable_slots_teacher_day_active
+    ON timetable_slots (teacher_id, day_of_week, is_active);
@@ -0,0 +1,106 @@
+-- Range-partition attendance by month on date.
+--
+-- Every attendance query filters on date (or a date range), so PostgreSQL prunes the scan down
+-- to the matching months. Old months can be archived with
+--   ALTER TABLE attendance DETACH PARTITION attendance_y2024m01;
+-- instead of a large DELETE. Detached rows drop out of attendance_summary on the next rebuild
+-- (POST /admin/attendance/summary/rebuild).
+
+-- Creates the monthly partition holding the given date if it does not exist yet
+CREATE OR REPLACE FUNCTION create_attendance_partition(for_date DATE) RETURNS VOID AS $$
+DECLARE
+    month_start DATE := date_trunc('month', for_date)::DATE;
+    partition_name TEXT := 'attendance_' || to_char(month_start, '"y"YYYY"m"MM');
+    month_end DATE := (month_start + INTERVAL '1 month')::DATE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    -- A new range may not overlap rows already sitting in the default partition, so move them
+    -- aside and re-route them through the parent once the partition exists
+    CREATE TEMP TABLE attendance_default_moved ON COMMIT DROP AS
+        SELECT * FROM attendance_default WHERE date >= month_start AND date < month_end;
+    DELETE FROM attendance_default WHERE date >= month_start AND date < month_end;
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF attendance FOR VALUES FROM (%L) TO (%L)',
+        partition_name, month_start, month_end);
+    INSERT INTO attendance SELECT * FROM attendance_default_moved;
+    DROP TABLE attendance_default_moved;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates monthly partitions from from_date's month through months_ahead months later
+CREATE OR REPLACE FUNCTION create_attendance_partitions(from_date DATE, months_ahead INTEGER)
+    RETURNS VOID AS $$
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        PERFORM create_attendance_partition((from_date + make_interval(months => i))::DATE);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE attendance RENAME TO attendance_unpartitioned;
+ALTER TABLE attendance_unpartitioned RENAME CONSTRAINT attendance_pkey
+    TO attendance_unpartitioned_pkey;
+ALTER TABLE attendance_unpartitioned DROP CONSTRAINT IF EXISTS uk_attendance_slot_student_date;
+DROP INDEX IF EXISTS uk_attendance_slot_student_date;
+DROP INDEX IF EXISTS idx_attendance_student_date;
+DROP INDEX IF EXISTS idx_attendance_slot_date;
+
+-- The id sequence has to outlive the old table. Schemas created by ddl-auto have an identity
+-- column, whose sequence cannot be re-owned; BIGSERIAL ones a sequence dropped along with the
+-- table. Detach it either way and give the new table its own, continuing after the last id.
+DO $$
+DECLARE
+    old_sequence TEXT := pg_get_serial_sequence('attendance_unpartitioned', 'id');
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_attribute
+               WHERE attrelid = 'attendance_unpartitioned'::regclass
+                 AND attname = 'id' AND attidentity <> '') THEN
+        ALTER TABLE attendance_unpartitioned ALTER COLUMN id DROP IDENTITY;
+    ELSIF old_sequence IS NOT NULL THEN
+        ALTER TABLE attendance_unpartitioned ALTER COLUMN id DROP DEFAULT;
+        EXECUTE format('DROP SEQUENCE %s', old_sequence);
+    END IF;
+END;
+$$;
+
+CREATE SEQUENCE attendance_id_seq;
+
+-- The partition key has to be part of every unique constraint, hence (id, date)
+CREATE TABLE attendance (
+    id                BIGINT       NOT NULL DEFAULT nextval('attendance_id_seq'),
+    timetable_slot_id BIGINT       NOT NULL,
+    student_id        BIGINT       NOT NULL,
+    date              DATE         NOT NULL,
+    status            VARCHAR(20)  NOT NULL,
+    marked_by         BIGINT       NOT NULL,
+    remarks           VARCHAR(500),
+    created_at        TIMESTAMP(6) NOT NULL,
+    updated_at        TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, date),
+    CONSTRAINT uk_attendance_slot_student_date UNIQUE (timetable_slot_id, student_id, date)
+) PARTITION BY RANGE (date);
+
+ALTER SEQUENCE attendance_id_seq OWNED BY attendance.id;
+
+CREATE INDEX idx_attendance_student_date ON attendance (student_id, date);
+CREATE INDEX idx_attendance_slot_date ON attendance (timetable_slot_id, date);
+
+-- Catches dates outside the pre-created months so an insert never fails for lack of a partition
+CREATE TABLE attendance_default PARTITION OF attendance DEFAULT;
+
+-- One partition per month that already has data, plus the coming months
+SELECT create_attendance_partition(month_start)
+FROM (SELECT DISTINCT date_trunc('month', date)::DATE AS month_start
+      FROM attendance_unpartitioned) existing_months;
+SELECT create_attendance_partitions(CURRENT_DATE, 3);
+
+INSERT INTO attendance (id, timetable_slot_id, student_id, date, status, marked_by, remarks,
+                        created_at, updated_at)
+SELECT id, timetable_slot_id, student_id, date, status, marked_by, remarks, created_at, updated_at
+FROM attendance_unpartitioned;
+
+SELECT setval('attendance_id_seq', COALESCE(max(id), 0) + 1, false) FROM attendance;
+
+DROP TABLE attendance_unpartitioned;
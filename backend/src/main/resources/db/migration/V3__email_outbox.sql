@@ -0,0 +1,24 @@
+-- Transactional outbox for outgoing email.
+--
+-- Services insert a row in the same transaction as the change that triggers the email, and
+-- EmailOutboxWorker delivers it after commit. A row is PENDING until a worker claims it, SENDING
+-- while claimed (next_attempt_at is then the lease expiry), and SENT or FAILED once done; failed
+-- attempts go back to PENDING with a later next_attempt_at until max attempts is reached.
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              BIGSERIAL PRIMARY KEY,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    -- Dropped once delivered: bodies carry one-time passwords and OTP codes
+    html_body       TEXT,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    sent_at         TIMESTAMP(6)
+);
+
+-- Workers only ever scan rows that are due
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due
+    ON email_outbox (next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
@@ -0,0 +1,15 @@
+-- Versions behind the student portal's ETags (see ResourceVersions), one row per resource.
+--
+-- They live here rather than in memory so that every instance, before and after a restart,
+-- hands out the same ETag for the same data. Writers bump them in the transaction that changes
+-- the data. Versions are drawn from one sequence, so a bumped version never repeats.
+
+CREATE SEQUENCE IF NOT EXISTS resource_version_seq;
+
+CREATE TABLE IF NOT EXISTS resource_versions (
+    -- ACCOUNT and ATTENDANCE are keyed by student id, CLASS by class id, ALL has id 0
+    kind    VARCHAR(20) NOT NULL,
+    id      BIGINT      NOT NULL,
+    version BIGINT      NOT NULL,
+    PRIMARY KEY (kind, id)
+);
@@ -0,0 +1,40 @@
+-- Serializes attendance partition creation across instances.
+--
+-- Every instance creates upcoming partitions at startup and from a nightly job. Without a lock
+-- two of them could both find a month missing, and the second CREATE TABLE failed with "relation
+-- already exists", aborting that instance's startup. The functions now take a transaction-level
+-- advisory lock and check for the partition only once they hold it. The lock is reentrant, so
+-- create_attendance_partitions can call create_attendance_partition while holding it.
+
+CREATE OR REPLACE FUNCTION create_attendance_partition(for_date DATE) RETURNS VOID AS $$
+DECLARE
+    month_start DATE := date_trunc('month', for_date)::DATE;
+    partition_name TEXT := 'attendance_' || to_char(month_start, '"y"YYYY"m"MM');
+    month_end DATE := (month_start + INTERVAL '1 month')::DATE;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_attendance_partition'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    -- A new range may not overlap rows already sitting in the default partition, so move them
+    -- aside and re-route them through the parent once the partition exists
+    CREATE TEMP TABLE attendance_default_moved ON COMMIT DROP AS
+        SELECT * FROM attendance_default WHERE date >= month_start AND date < month_end;
+    DELETE FROM attendance_default WHERE date >= month_start AND date < month_end;
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF attendance FOR VALUES FROM (%L) TO (%L)',
+        partition_name, month_start, month_end);
+    INSERT INTO attendance SELECT * FROM attendance_default_moved;
+    DROP TABLE attendance_default_moved;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION create_attendance_partitions(from_date DATE, months_ahead INTEGER)
+    RETURNS VOID AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_attendance_partition'));
+    FOR i IN 0..months_ahead LOOP
+        PERFORM create_attendance_partition((from_date + make_interval(months => i))::DATE);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,329 @@
+package com.attendly.observability;
+
+import static com.attendly.observability.QueryCountAssertions.assertAtMost;
+import static com.attendly.observability.QueryCountAssertions.queriesAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.attendly.dto.AttendanceResponse;
+import com.attendly.repository.AttendanceRepository;
+import com.attendly.security.JwtService;
+import com.attendly.service.AttendanceService;
+import com.attendly.service.AttendanceSummaryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * Query budgets for the endpoints the load test drives, checked through the {@value
+ * QueryCountFilter#HEADER} header it reports. Each request is sent once to warm the caches, as
+ * they are in steady state, and then measured. A regression here usually means an N+1 or a cache
+ * that stopped being hit.
+ */
+// A real port, as in the load test: starting Tomcat registers the classpath: URL handler that
+// the second-level cache configuration (classpath:hibernate-cache.conf) is loaded through
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.gmail.oauth.client-id=test",
+      "spring.gmail.oauth.client-secret=test",
+      "spring.gmail.oauth.refresh-token=test",
+      "spring.gmail.user.email=test@attendly.local",
+      "email.transport=log",
+      "spring.jpa.show-sql=false",
+      "spring.jpa.open-in-view=false",
+      "logging.level.com.attendly=INFO",
+      "logging.level.org.springframework.security=INFO",
+      "logging.level.org.hibernate.SQL=INFO"
+    })
+@AutoConfigureMockMvc
+// Tests turn metrics export off by default; the Prometheus scrape needs it
+@AutoConfigureObservability(tracing = false)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotEndpointQueryBudgetTest {
+
+  private static final String PASSWORD = "Budget@123";
+  private static final int STUDENTS = 30;
+
+  private static EmbeddedPostgres postgres;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private JdbcTemplate jdbc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private JwtService jwtService;
+  @Autowired private PasswordEncoder passwordEncoder;
+  @Autowired private AttendanceRepository attendanceRepository;
+  @Autowired private AttendanceSummaryService attendanceSummaryService;
+  @Autowired private AttendanceService attendanceService;
+
+  @LocalServerPort private int serverPort;
+  @LocalManagementPort private int managementPort;
+
+  private long classId;
+  private long slotId;
+  private LocalDate date;
+  private String teacherToken;
+  private String studentToken;
+  private String studentEmail;
+  private final List<Long> studentIds = new ArrayList<>();
+
+  @DynamicPropertySource
+  static void database(DynamicPropertyRegistry registry) throws IOException {
+    postgres = EmbeddedPostgres.builder().start();
+    registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+    registry.add("spring.datasource.username", () -> "postgres");
+    registry.add("spring.datasource.password", () -> "postgres");
+  }
+
+  @AfterAll
+  static void stop() throws IOException {
+    if (postgres != null) {
+      postgres.close();
+    }
+  }
+
+  @BeforeAll
+  void seed() {
+    String passwordHash = passwordEncoder.encode(PASSWORD);
+    date = LocalDate.now().minusDays(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    attendanceRepository.createPartitions(date, 1);
+
+    long adminId =
+        jdbc.queryForObject(
+            "INSERT INTO admins (name, email, password, phone, institution, role, is_active,"
+                + " created_at, updated_at)"
+                + " VALUES ('Admin', 'admin@budget.local', ?, '9000000000', 'Budget College',"
+                + " 'ADMIN', true, now(), now()) RETURNING id",
+            Long.class,
+            passwordHash);
+    long departmentId =
+        jdbc.queryForObject(
+            "INSERT INTO departments (name, code, admin_id, is_active, created_at, updated_at)"
+                + " VALUES ('Science', 'SCI', ?, true, now(), now()) RETURNING id",
+            Long.class,
+            adminId);
+    long teacherId =
+        jdbc.queryForObject(
+            "INSERT INTO teachers (name, email, password, first_login, department_id, admin_id,"
+                + " is_active, created_at, updated_at)"
+                + " VALUES ('Teacher', 'teacher@budget.local', ?, false, ?, ?, true, now(), now())"
+                + " RETURNING id",
+            Long.class,
+            passwordHash,
+            departmentId,
+            adminId);
+    classId =
+        jdbc.queryForObject(
+            "INSERT INTO classes (name, semester, year, department_id, admin_id, is_active,"
+                + " created_at, updated_at)"
+                + " VALUES ('Class A', 1, ?, ?, ?, true, now(), now()) RETURNING id",
+            Long.class,
+            date.getYear(),
+            departmentId,
+            adminId);
+    slotId =
+        jdbc.queryForObject(
+            "INSERT INTO timetable_slots (class_id, subject, teacher_id, teacher_name,"
+                + " day_of_week, start_time, end_time, room, is_active, created_at, updated_at)"
+                + " VALUES (?, 'Physics', ?, 'Teacher', 'MONDAY', '09:00', '09:50', 'Room 1',"
+                + " true, now(), now()) RETURNING id",
+            Long.class,
+            classId,
+            teacherId);
+    for (int s = 1; s <= STUDENTS; s++) {
+      studentIds.add(
+          jdbc.queryForObject(
+              "INSERT INTO students (name, email, password, roll_number, phone_verified,"
+                  + " first_login, class_id, department_id, admin_id, is_active, created_at,"
+                  + " updated_at)"
+                  + " VALUES (?, ?, ?, ?, false, false, ?, ?, ?, true, now(), now())"
+                  + " RETURNING id",
+              Long.class,
+              "Student " + s,
+              "student" + s + "@budget.local",
+              passwordHash,
+              String.format("R%03d", s),
+              classId,
+              departmentId,
+              adminId));
+    }
+    jdbc.update(
+        "INSERT INTO attendance (timetable_slot_id, student_id, date, status, marked_by,"
+            + " created_at, updated_at)"
+            + " SELECT ?, id, ?, 'PRESENT', ?, now(), now() FROM students WHERE class_id = ?",
+        slotId,
+        Date.valueOf(date),
+        teacherId,
+        classId);
+    attendanceSummaryService.rebuildAll();
+
+    // Same claims UserAuthService puts in login tokens
+    Map<String, Object> teacherClaims = new HashMap<>();
+    teacherClaims.put("userId", teacherId);
+    teacherClaims.put("name", "Teacher");
+    teacherClaims.put("role", "TEACHER");
+    teacherClaims.put("departmentId", departmentId);
+    teacherToken = jwtService.generateToken(teacherClaims, user("teacher@budget.local"));
+
+    studentEmail = "student1@budget.local";
+    Map<String, Object> studentClaims = new HashMap<>();
+    studentClaims.put("userId", studentIds.get(0));
+    studentClaims.put("name", "Student 1");
+    studentClaims.put("role", "STUDENT");
+    studentClaims.put("classId", classId);
+    studentClaims.put("departmentId", departmentId);
+    studentToken = jwtService.generateToken(studentClaims, user(studentEmail));
+  }
+
+  @Test
+  void attendanceReport() throws Exception {
+    // The ETag's version lookup and the report itself
+    assertWithinBudget(
+        2, get("/student/attendance/report").header("Authorization", bearer(studentToken)));
+  }
+
+  @Test
+  void attendanceReportNotModified() throws Exception {
+    String etag =
+        mockMvc
+            .perform(
+                get("/student/attendance/report").header("Authorization", bearer(studentToken)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    mockMvc
+        .perform(
+            get("/student/attendance/report")
+                .header("Authorization", bearer(studentToken))
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(queriesAtMost(1));
+  }
+
+  @Test
+  void classStudents() throws Exception {
+    assertWithinBudget(
+        1,
+        get("/teacher/class/" + classId + "/students")
+            .param("slotId", String.valueOf(slotId))
+            .param("date", date.toString())
+            .header("Authorization", bearer(teacherToken)));
+  }
+
+  @Test
+  void attendanceBySlot() throws Exception {
+    // Called directly, outside any request's scope; the slot lookup only runs when it has no rows
+    List<AttendanceResponse> attendance =
+        assertAtMost(1, () -> attendanceService.getAttendanceBySlot(slotId, date));
+    assertThat(attendance).hasSize(STUDENTS);
+  }
+
+  @Test
+  void bulkMark() throws Exception {
+    List<Map<String, Object>> register = new ArrayList<>();
+    for (Long studentId : studentIds) {
+      register.add(
+          Map.of(
+              "timetableSlotId", slotId,
+              "studentId", studentId,
+              "date", date.toString(),
+              "status", studentId % 5 == 0 ? "ABSENT" : "PRESENT"));
+    }
+    assertWithinBudget(
+        8,
+        post("/admin/attendance/mark/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(toJson(register))
+            .header("Authorization", bearer(teacherToken)));
+  }
+
+  @Test
+  void studentLogin() throws Exception {
+    assertWithinBudget(
+        1,
+        post("/auth/user/student/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(toJson(Map.of("email", studentEmail, "password", PASSWORD))));
+  }
+
+  @Test
+  void prometheusScrape() throws Exception {
+    HttpClient client = HttpClient.newHttpClient();
+    HttpResponse<String> scrape =
+        client.send(
+            HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + managementPort + "/actuator/prometheus"))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    assertThat(scrape.statusCode()).isEqualTo(200);
+    assertThat(scrape.body()).contains("hikaricp_connections");
+
+    // Not served on the public port
+    HttpResponse<Void> publicPort =
+        client.send(
+            HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + serverPort + "/api/actuator/prometheus"))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+    assertThat(publicPort.statusCode()).isEqualTo(401);
+  }
+
+  private void assertWithinBudget(int maxQueries, RequestBuilder request) throws Exception {
+    mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+    mockMvc
+        .perform(request)
+        .andExpect(status().is2xxSuccessful())
+        .andExpect(queriesAtMost(maxQueries));
+  }
+
+  private byte[] toJson(Object body) {
+    try {
+      return objectMapper.writeValueAsBytes(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String bearer(String token) {
+    return "Bearer " + token;
+  }
+
+  private static User user(String email) {
+    return new User(email, "", List.of());
+  }
+}
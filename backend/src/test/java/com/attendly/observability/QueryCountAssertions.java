@@ -0,0 +1,57 @@
+package com.attendly.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Callable;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Query-count budgets for tests: runs a block on the current thread and fails if it created more
+ * statements than allowed.
+ *
+ * <pre>
+ * List&lt;AttendanceResponse&gt; rows =
+ *     QueryCountAssertions.assertAtMost(2, () -&gt; attendanceService.getAttendanceBySlot(id, date));
+ * </pre>
+ *
+ * <p>Requests sent through MockMvc are counted by {@link QueryCountFilter} instead, which starts a
+ * scope of its own; check them with {@link #queriesAtMost}.
+ */
+public final class QueryCountAssertions {
+
+  private QueryCountAssertions() {}
+
+  public static <T> T assertAtMost(int maxQueries, Callable<T> block) throws Exception {
+    int[] queries = new int[1];
+    T result = measure(block, queries);
+    if (queries[0] > maxQueries) {
+      throw new AssertionError(
+          "Expected at most " + maxQueries + " SQL statements but " + queries[0] + " were run");
+    }
+    return result;
+  }
+
+  /** Checks the {@value QueryCountFilter#HEADER} header, which covers the whole request. */
+  public static ResultMatcher queriesAtMost(int maxQueries) {
+    return result -> {
+      String header = result.getResponse().getHeader(QueryCountFilter.HEADER);
+      assertThat(header).as(QueryCountFilter.HEADER + " header").isNotNull();
+      assertThat(Integer.parseInt(header))
+          .as("SQL statements run by %s", result.getRequest().getRequestURI())
+          .isLessThanOrEqualTo(maxQueries);
+    };
+  }
+
+  // Counts into its own scope; statements still add to an enclosing request's count afterwards
+  private static <T> T measure(Callable<T> block, int[] queries) throws Exception {
+    int[] outer = QueryCounter.replaceScope(queries);
+    try {
+      return block.call();
+    } finally {
+      QueryCounter.replaceScope(outer);
+      if (outer != null) {
+        outer[0] += queries[0];
+      }
+    }
+  }
+}
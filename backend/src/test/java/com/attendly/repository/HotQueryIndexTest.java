@@ -0,0 +1,129 @@
+package com.attendly.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Checks that the hot repository queries can be served by the indexes the Flyway migrations
+ * create. The SQL mirrors what the repositories generate. Sequential scans are disabled, so the
+ * planner only falls back to one (at a prohibitive cost) when no index fits the query.
+ */
+class HotQueryIndexTest {
+
+  private static final Pattern SEQ_SCAN_ON_HOT_TABLE =
+      Pattern.compile("Seq Scan on (attendance\\w*|students|timetable_slots)\\b");
+
+  private static final String ATTENDANCE_RESPONSE_SELECT =
+      "SELECT a.*, ts.subject, s.name, t.name FROM attendance a"
+          + " LEFT JOIN timetable_slots ts ON ts.id = a.timetable_slot_id"
+          + " LEFT JOIN students s ON s.id = a.student_id"
+          + " LEFT JOIN teachers t ON t.id = a.marked_by";
+
+  private static EmbeddedPostgres postgres;
+
+  @BeforeAll
+  static void migrate() throws Exception {
+    postgres = EmbeddedPostgres.builder().start();
+    Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (postgres != null) {
+      postgres.close();
+    }
+  }
+
+  static Stream<Arguments> hotQueries() {
+    return Stream.of(
+        Arguments.of(
+            "student attendance history",
+            ATTENDANCE_RESPONSE_SELECT + " WHERE a.student_id = 1 ORDER BY a.date, a.id"),
+        Arguments.of(
+            "student attendance range",
+            ATTENDANCE_RESPONSE_SELECT
+                + " WHERE a.student_id = 1 AND a.date BETWEEN '2026-09-01' AND '2026-09-30'"
+                + " ORDER BY a.date, a.id"),
+        Arguments.of(
+            "slot register for a date",
+            ATTENDANCE_RESPONSE_SELECT
+                + " WHERE a.timetable_slot_id = 1 AND a.date = '2026-09-14' ORDER BY a.id"),
+        Arguments.of(
+            "attendance by full key",
+            ATTENDANCE_RESPONSE_SELECT
+                + " WHERE a.timetable_slot_id = 1 AND a.student_id = 1"
+                + " AND a.date = '2026-09-14'"),
+        Arguments.of(
+            "bulk mark lookup",
+            ATTENDANCE_RESPONSE_SELECT
+                + " WHERE a.timetable_slot_id IN (1, 2) AND a.student_id IN (1, 2, 3)"
+                + " AND a.date IN ('2026-09-14', '2026-09-15')"),
+        Arguments.of(
+            "teacher roll call",
+            "SELECT s.id, s.name, s.roll_number, s.email, COALESCE(a.status, 'NOT_MARKED')"
+                + " FROM students s"
+                + " LEFT JOIN attendance a ON a.student_id = s.id"
+                + " AND a.timetable_slot_id = 1 AND a.date = '2026-09-14'"
+                + " WHERE s.class_id = 1 AND s.is_active = true ORDER BY s.roll_number"),
+        Arguments.of(
+            "active students of a class",
+            "SELECT * FROM students WHERE class_id = 1 AND is_active = true"
+                + " ORDER BY roll_number"),
+        Arguments.of(
+            "active students of an admin",
+            "SELECT * FROM students WHERE admin_id = 1 AND is_active = true"),
+        Arguments.of(
+            "class timetable",
+            "SELECT * FROM timetable_slots WHERE class_id = 1 AND is_active = true"),
+        Arguments.of(
+            "class timetable for a day",
+            "SELECT * FROM timetable_slots"
+                + " WHERE class_id = 1 AND day_of_week = 'MONDAY' AND is_active = true"),
+        Arguments.of(
+            "teacher timetable",
+            "SELECT * FROM timetable_slots WHERE teacher_id = 1 AND is_active = true"),
+        Arguments.of(
+            "teacher timetable for a day",
+            "SELECT * FROM timetable_slots"
+                + " WHERE teacher_id = 1 AND day_of_week = 'MONDAY' AND is_active = true"));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("hotQueries")
+  void hotQueryUsesAnIndex(String name, String sql) throws SQLException {
+    List<String> plan = explain(sql);
+
+    assertThat(plan)
+        .as("plan for %s:%n%s", name, String.join("\n", plan))
+        .noneMatch(line -> SEQ_SCAN_ON_HOT_TABLE.matcher(line).find());
+  }
+
+  private static List<String> explain(String sql) throws SQLException {
+    try (Connection connection = postgres.getPostgresDatabase().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("SET enable_seqscan = off");
+      List<String> plan = new ArrayList<>();
+      try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+        while (rs.next()) {
+          plan.add(rs.getString(1));
+        }
+      }
+      return plan;
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package com.attendly.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.attendly.entity.Admin;
+import com.attendly.entity.Attendance;
+import com.attendly.entity.Class;
+import com.attendly.entity.Department;
+import com.attendly.entity.OtpVerification;
+import com.attendly.entity.Student;
+import com.attendly.entity.Teacher;
+import com.attendly.entity.TimetableSlot;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+
+/**
+ * Runs the Flyway migrations against both kinds of database they meet in production: an empty
+ * one, and one whose schema Hibernate ddl-auto created before Flyway was introduced (baselined at
+ * version 0, as application.yml configures). Either way existing attendance must survive and new
+ * rows must keep getting ids after the last one. A legacy table holding duplicate marks stops the
+ * migration before anything is changed.
+ */
+class MigrationTest {
+
+  // The entities that existed while the schema was still managed by ddl-auto
+  private static final List<java.lang.Class<?>> DDL_AUTO_ENTITIES =
+      List.of(
+          Admin.class,
+          Attendance.class,
+          Class.class,
+          Department.class,
+          OtpVerification.class,
+          Student.class,
+          Teacher.class,
+          TimetableSlot.class);
+
+  private static EmbeddedPostgres postgres;
+
+  @BeforeAll
+  static void start() throws Exception {
+    postgres = EmbeddedPostgres.builder().start();
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (postgres != null) {
+      postgres.close();
+    }
+  }
+
+  @Test
+  void migratesEmptyDatabase() throws SQLException {
+    DataSource dataSource = createDatabase("fresh");
+
+    migrate(dataSource);
+
+    assertThat(insertAttendance(dataSource, "2026-09-14")).isEqualTo(1);
+    assertThat(insertAttendance(dataSource, "2026-09-15")).isEqualTo(2);
+    assertThat(sequenceOwner(dataSource)).isEqualTo("attendance.id");
+  }
+
+  // Hibernate 6.3 maps IDENTITY ids to bigserial; other versions use identity columns
+  @ParameterizedTest(name = "identity column: {0}")
+  @ValueSource(booleans = {false, true})
+  void migratesDdlAutoSchema(boolean identityColumn) throws SQLException {
+    DataSource dataSource = createDatabase(identityColumn ? "ddl_auto_identity" : "ddl_auto");
+    createLegacySchema(dataSource);
+    if (identityColumn) {
+      execute(
+          dataSource,
+          "ALTER TABLE attendance ALTER COLUMN id DROP DEFAULT;"
+              + " DROP SEQUENCE attendance_id_seq;"
+              + " ALTER TABLE attendance ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY");
+    }
+    insertAttendance(dataSource, "2026-08-31");
+    insertAttendance(dataSource, "2026-09-01");
+    long lastId = insertAttendance(dataSource, "2026-09-14");
+
+    migrate(dataSource);
+
+    assertThat(queryLong(dataSource, "SELECT count(*) FROM attendance")).isEqualTo(3);
+    assertThat(queryLong(dataSource, "SELECT max(id) FROM attendance")).isEqualTo(lastId);
+    assertThat(insertAttendance(dataSource, "2026-09-15")).isEqualTo(lastId + 1);
+    assertThat(sequenceOwner(dataSource)).isEqualTo("attendance.id");
+    assertThat(
+            queryLong(
+                dataSource,
+                "SELECT count(*) FROM pg_indexes"
+                    + " WHERE tablename = 'attendance'"
+                    + " AND indexname = 'uk_attendance_slot_student_date'"))
+        .isEqualTo(1);
+  }
+
+  @Test
+  void refusesDuplicateAttendance() throws SQLException {
+    DataSource dataSource = createDatabase("ddl_auto_duplicates");
+    createLegacySchema(dataSource);
+    insertAttendance(dataSource, "2026-09-14");
+    insertAttendance(dataSource, "2026-09-14");
+    insertAttendance(dataSource, "2026-09-15");
+
+    assertThatThrownBy(() -> migrate(dataSource))
+        .isInstanceOf(FlywayException.class)
+        .hasMessageContaining("attendance has 1 (slot, student, date) keys with more than one row");
+
+    // Nothing was picked as the winner
+    assertThat(queryLong(dataSource, "SELECT count(*) FROM attendance")).isEqualTo(3);
+  }
+
+  // Every instance creates the upcoming partitions at startup; the second one must wait for the
+  // first and then find the month already there
+  @Test
+  void createsPartitionsConcurrently() throws Exception {
+    DataSource dataSource = createDatabase("concurrent_partitions");
+    migrate(dataSource);
+
+    try (Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection()) {
+      first.setAutoCommit(false);
+      second.setAutoCommit(false);
+      createPartitions(first, "2031-01-01");
+      CompletableFuture<Void> waiting =
+          CompletableFuture.runAsync(
+              () -> {
+                try {
+                  createPartitions(second, "2031-01-01");
+                  second.commit();
+                } catch (SQLException e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (queryLong(dataSource, "SELECT count(*) FROM pg_locks WHERE NOT granted") == 0) {
+        assertThat(System.nanoTime()).as("second caller blocked").isLessThan(deadline);
+        Thread.sleep(20);
+      }
+      first.commit();
+
+      waiting.get(10, TimeUnit.SECONDS);
+    }
+    assertThat(
+            queryLong(
+                dataSource,
+                "SELECT count(*) FROM pg_inherits"
+                    + " WHERE inhrelid = 'attendance_y2031m01'::regclass"))
+        .isEqualTo(1);
+  }
+
+  private static void createPartitions(Connection connection, String date) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("SELECT create_attendance_partitions(DATE '" + date + "', 0)");
+    }
+  }
+
+  private static DataSource createDatabase(String name) throws SQLException {
+    try (Connection connection = postgres.getPostgresDatabase().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("CREATE DATABASE " + name);
+    }
+    return postgres.getDatabase("postgres", name);
+  }
+
+  private static void migrate(DataSource dataSource) {
+    Flyway.configure()
+        .dataSource(dataSource)
+        .baselineOnMigrate(true)
+        .baselineVersion("0")
+        .load()
+        .migrate();
+  }
+
+  // The entities now declare the unique key and indexes V1 adds; the ddl-auto schema had none
+  private static void createLegacySchema(DataSource dataSource) throws SQLException {
+    createWithHibernate(dataSource);
+    execute(
+        dataSource,
+        "ALTER TABLE attendance DROP CONSTRAINT uk_attendance_slot_student_date;"
+            + " DROP INDEX idx_attendance_student_date, idx_attendance_slot_date,"
+            + " idx_students_class_active_roll, idx_students_admin_active,"
+            + " idx_timetable_slots_class_day_active, idx_timetable_slots_teacher_day_active");
+  }
+
+  // The schema spring.jpa.hibernate.ddl-auto=update creates, with Spring Boot's naming
+  private static void createWithHibernate(DataSource dataSource) {
+    // Hibernate's native bootstrap ignores the JPA data source settings, so hand it a provider
+    DatasourceConnectionProviderImpl connectionProvider = new DatasourceConnectionProviderImpl();
+    connectionProvider.setDataSource(dataSource);
+    StandardServiceRegistry registry =
+        new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.CONNECTION_PROVIDER, connectionProvider)
+            .applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+            .applySetting(
+                AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                CamelCaseToUnderscoresNamingStrategy.class.getName())
+            .applySetting(
+                AvailableSettings.IMPLICIT_NAMING_STRATEGY,
+                SpringImplicitNamingStrategy.class.getName())
+            .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "update")
+            .applySetting(AvailableSettings.HBM2DDL_HALT_ON_ERROR, true)
+            .build();
+    MetadataSources sources = new MetadataSources(registry);
+    DDL_AUTO_ENTITIES.forEach(sources::addAnnotatedClass);
+    // Building the session factory runs the schema update, and closing it releases the registry
+    try (SessionFactory sessionFactory = sources.buildMetadata().buildSessionFactory()) {
+      assertThat(sessionFactory.isOpen()).isTrue();
+    }
+  }
+
+  // Leaves the id to the column default, as the application does
+  private static long insertAttendance(DataSource dataSource, String date) throws SQLException {
+    return queryLong(
+        dataSource,
+        "INSERT INTO attendance (timetable_slot_id, student_id, date, status, marked_by,"
+            + " created_at, updated_at)"
+            + " VALUES (1, 1, DATE '"
+            + date
+            + "', 'PRESENT', 1, now(), now()) RETURNING id");
+  }
+
+  private static String sequenceOwner(DataSource dataSource) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet rs =
+            statement.executeQuery(
+                "SELECT c.relname || '.' || a.attname FROM pg_depend d"
+                    + " JOIN pg_class c ON c.oid = d.refobjid"
+                    + " JOIN pg_attribute a"
+                    + " ON a.attrelid = d.refobjid AND a.attnum = d.refobjsubid"
+                    + " WHERE d.objid = 'attendance_id_seq'::regclass AND d.deptype = 'a'")) {
+      return rs.next() ? rs.getString(1) : null;
+    }
+  }
+
+  private static void execute(DataSource dataSource, String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  private static long queryLong(DataSource dataSource, String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery(sql)) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+}